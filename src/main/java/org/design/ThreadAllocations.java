@@ -0,0 +1,26 @@
+package org.design;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads how many bytes the current thread has allocated, for the benchmarks and simulations that report it.
+ */
+public final class ThreadAllocations {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private ThreadAllocations() {
+    }
+
+    /**
+     * Bytes allocated by the current thread so far, 0 when the JVM cannot report thread allocations.
+     */
+    public static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,172 @@
+package org.design.behavioral.observer;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorates an Observer so that update() only puts the rate into a bounded ring buffer,
+ * and a dedicated consumer thread calls the real observer.
+ * A slow observer then delays only itself, never the publisher or the other observers.
+ * An exception thrown by the observer is counted and the consumer moves on to the next rate.
+ */
+public class AsyncObserver implements Observer, QueueStats, AutoCloseable {
+
+    private final Observer delegate;
+    private final BackpressurePolicy policy;
+
+    // Rates are kept as primitive floats, nothing is boxed per update
+    private final float[] ring;
+    private int head;
+    private int count;
+    private long dropped;
+    private boolean closed;
+    // Set if the consumer thread died, no update would ever be delivered again
+    private boolean consumerStopped;
+    private final LongAdder failures = new LongAdder();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Thread consumer;
+
+    public AsyncObserver(Observer delegate, int capacity, BackpressurePolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.policy = policy;
+        this.ring = new float[capacity];
+        this.consumer = new Thread(this::consume, "observer-" + delegate.getClass().getSimpleName());
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void update(float interest) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Observer is closed");
+            }
+            checkConsumer();
+            if (policy == BackpressurePolicy.CONFLATE && count > 0) {
+                // Replace the newest pending rate, older ones are already superseded by it
+                ring[(head + count - 1) % ring.length] = interest;
+                dropped++;
+                return;
+            }
+            if (count == ring.length) {
+                if (policy == BackpressurePolicy.BLOCK) {
+                    while (count == ring.length && !closed && !consumerStopped) {
+                        notFull.awaitUninterruptibly();
+                    }
+                    if (closed) {
+                        throw new IllegalStateException("Observer is closed");
+                    }
+                    checkConsumer();
+                } else {
+                    head = (head + 1) % ring.length;
+                    count--;
+                    dropped++;
+                }
+            }
+            ring[(head + count) % ring.length] = interest;
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkConsumer() {
+        if (consumerStopped) {
+            throw new IllegalStateException("Observer consumer thread has stopped");
+        }
+    }
+
+    private void consume() {
+        try {
+            deliver();
+        } finally {
+            lock.lock();
+            try {
+                consumerStopped = true;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void deliver() {
+        while (true) {
+            float interest;
+            lock.lock();
+            try {
+                while (count == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (count == 0) {
+                    return;
+                }
+                interest = ring[head];
+                head = (head + 1) % ring.length;
+                count--;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                delegate.update(interest);
+            } catch (RuntimeException e) {
+                failures.increment();
+            }
+        }
+    }
+
+    // Updates the observer threw on
+    public long getFailedCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting updates, lets the consumer deliver what is already queued and waits for it.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.design.behavioral.observer;
+
+/**
+ * What an AsyncObserver does when its ring buffer is full.
+ */
+public enum BackpressurePolicy {
+    // Publisher waits until the observer frees a slot
+    BLOCK,
+    // Oldest pending rate is overwritten by the new one
+    DROP_OLDEST,
+    // Only the latest pending rate is kept, the observer never falls behind by more than one update
+    CONFLATE
+}
@@ -0,0 +1,115 @@
+package org.design.behavioral.observer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorates an Observer that only cares about the latest rate.
+ * update() publishes the rate and a sequence number into one lock-free slot, packed
+ * into a single long, so there is no queue to grow and nothing is allocated per update.
+ * A consumer thread hands the most recent rate to the real observer whenever it is ready.
+ */
+public class ConflatingObserver implements Observer, QueueStats, AutoCloseable {
+
+    private final Observer delegate;
+
+    // High 32 bits: sequence number, low 32 bits: raw float bits of the rate
+    private final AtomicLong slot = new AtomicLong();
+    // The packed sequence wraps, so the full count is kept on its own
+    private final LongAdder published = new LongAdder();
+
+    private final Thread consumer;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+    // Only written by the consumer thread
+    private volatile long delivered;
+    private volatile int deliveredSequence;
+
+    public ConflatingObserver(Observer delegate) {
+        this.delegate = delegate;
+        this.consumer = new Thread(this::consume, "conflating-" + delegate.getClass().getSimpleName());
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void update(float interest) {
+        if (closed) {
+            throw new IllegalStateException("Observer is closed");
+        }
+        long bits = Float.floatToRawIntBits(interest) & 0xFFFFFFFFL;
+        long current;
+        do {
+            current = slot.get();
+        } while (!slot.compareAndSet(current, (current & 0xFFFFFFFF00000000L) + (1L << 32) | bits));
+        published.increment();
+
+        // Only pay for an unpark when the consumer is actually parked
+        if (waiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        int lastSequence = 0;
+        while (true) {
+            long current = slot.get();
+            int sequence = (int) (current >>> 32);
+            if (sequence != lastSequence) {
+                lastSequence = sequence;
+                deliveredSequence = sequence;
+                delivered++;
+                delegate.update(Float.intBitsToFloat((int) current));
+            } else if (closed) {
+                return;
+            } else {
+                waiting = true;
+                // Re-check after announcing, so an update racing with us is never missed
+                if (slot.get() == current && !closed) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+            }
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    // At most one rate is ever pending
+    @Override
+    public int getQueueDepth() {
+        return (int) (slot.get() >>> 32) != deliveredSequence ? 1 : 0;
+    }
+
+    /**
+     * Rates that were overwritten before the consumer got to them. The count is read while updates
+     * continue, so a rate published during the call may be counted as dropped although it is still
+     * pending, until the next call.
+     */
+    @Override
+    public long getDroppedCount() {
+        int depth = getQueueDepth();
+        return Math.max(0, published.sum() - delivered - depth);
+    }
+
+    /**
+     * Stops accepting updates, delivers the latest pending rate and waits for the consumer.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
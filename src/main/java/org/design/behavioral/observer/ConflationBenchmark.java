@@ -0,0 +1,70 @@
+package org.design.behavioral.observer;
+
+/**
+ * Pushes a stream of rate changes at slow observers and compares the conflating slot
+ * with the conflating ring buffer of AsyncObserver.
+ */
+public class ConflationBenchmark {
+
+    private static final int OBSERVERS = 8;
+    private static final int UPDATES = 20_000_000;
+
+    public static void main(String[] args) {
+        ConflatingObserver[] slots = new ConflatingObserver[OBSERVERS];
+        AsyncObserver[] rings = new AsyncObserver[OBSERVERS];
+        for (int i = 0; i < OBSERVERS; i++) {
+            slots[i] = new ConflatingObserver(new SlowObserver());
+            rings[i] = new AsyncObserver(new SlowObserver(), 1024, BackpressurePolicy.CONFLATE);
+        }
+
+        // Warm up both paths before measuring
+        publish(slots, UPDATES / 10);
+        publish(rings, UPDATES / 10);
+
+        long slotNanos = publish(slots, UPDATES);
+        long ringNanos = publish(rings, UPDATES);
+
+        long delivered = 0;
+        for (ConflatingObserver slot : slots) {
+            slot.close();
+            delivered += slot.getDeliveredCount();
+        }
+        for (AsyncObserver ring : rings) {
+            ring.close();
+        }
+
+        report("Conflating slot", slotNanos);
+        System.out.printf("  %,d deliveries to %d slow observers%n", delivered, OBSERVERS);
+        report("AsyncObserver CONFLATE", ringNanos);
+    }
+
+    private static long publish(Observer[] observers, int updates) {
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            float rate = 1.0f + (i & 1023) / 100.0f;
+            for (Observer observer : observers) {
+                observer.update(rate);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("%s: %,.0f rate changes/s (%.1f ns per change to %d observers)%n",
+                name, UPDATES * 1_000_000_000.0 / nanos, (double) nanos / UPDATES, OBSERVERS);
+    }
+
+    private static class SlowObserver implements Observer {
+        private float last;
+
+        @Override
+        public void update(float interest) {
+            last = interest;
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.design.behavioral.observer;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorates an Observer and times every update() it handles.
+ */
+public class InstrumentedObserver implements Observer {
+
+    private final Observer delegate;
+    private final long latencyBudgetNanos;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder budgetMisses = new LongAdder();
+
+    public InstrumentedObserver(Observer delegate, long latencyBudgetNanos) {
+        this.delegate = delegate;
+        this.latencyBudgetNanos = latencyBudgetNanos;
+    }
+
+    @Override
+    public void update(float interest) {
+        long start = System.nanoTime();
+        try {
+            delegate.update(interest);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            histogram.record(nanos);
+            maxNanos.accumulate(nanos);
+            if (nanos > latencyBudgetNanos) {
+                budgetMisses.increment();
+            }
+        }
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getBudgetMisses() {
+        return budgetMisses.sum();
+    }
+
+    public long getLatencyBudgetNanos() {
+        return latencyBudgetNanos;
+    }
+}
@@ -0,0 +1,134 @@
+package org.design.behavioral.observer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only, memory-mapped log of interest rate changes.
+ * Every record is 24 little-endian bytes: sequence (long), time in millis (long), loan id (int),
+ * interest (float). The file grows in chunks of 2^21 records, and on reopen the end of the log is
+ * found by a binary search for the last non-zero sequence, so changes survive a process restart.
+ */
+public class InterestJournal implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 24;
+
+    private static final int RECORDS_PER_CHUNK_SHIFT = 21;
+    private static final int RECORDS_PER_CHUNK = 1 << RECORDS_PER_CHUNK_SHIFT;
+    private static final long CHUNK_SIZE = (long) RECORDS_PER_CHUNK * RECORD_SIZE;
+
+    private static final int SEQUENCE = 0;
+    private static final int TIMESTAMP = 8;
+    private static final int LOAN_ID = 16;
+    private static final int INTEREST = 20;
+
+    private final FileChannel channel;
+    // Replaced as a whole when the file grows, so readers need no lock
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    // Published after the record is written, readers never look past it
+    private volatile long lastSequence;
+
+    public InterestJournal(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long chunkCount = Math.max(1, (channel.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        for (int i = 0; i < chunkCount; i++) {
+            mapChunk();
+        }
+        this.lastSequence = recoverLastSequence();
+    }
+
+    /**
+     * Appends a rate change and returns its sequence number, starting at 1.
+     */
+    public synchronized long append(int loanId, float interest) {
+        long sequence = lastSequence + 1;
+        long index = sequence - 1;
+        int chunk = (int) (index >>> RECORDS_PER_CHUNK_SHIFT);
+        if (chunk == chunks.length) {
+            try {
+                mapChunk();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        MappedByteBuffer buffer = chunks[chunk];
+        int offset = (int) (index & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+        buffer.putLong(offset + TIMESTAMP, System.currentTimeMillis());
+        buffer.putInt(offset + LOAN_ID, loanId);
+        buffer.putFloat(offset + INTEREST, interest);
+        // The sequence goes in last, a record with a sequence is complete
+        buffer.putLong(offset + SEQUENCE, sequence);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Hands every record from fromSequence up to the current end to the listener,
+     * and returns the sequence to replay from next time.
+     */
+    public long replay(long fromSequence, JournalListener listener) {
+        long last = lastSequence;
+        MappedByteBuffer[] mapped = chunks;
+        long sequence = Math.max(1, fromSequence);
+        for (; sequence <= last; sequence++) {
+            long index = sequence - 1;
+            MappedByteBuffer buffer = mapped[(int) (index >>> RECORDS_PER_CHUNK_SHIFT)];
+            int offset = (int) (index & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+            listener.onRecord(sequence, buffer.getLong(offset + TIMESTAMP),
+                    buffer.getInt(offset + LOAN_ID), buffer.getFloat(offset + INTEREST));
+        }
+        return sequence;
+    }
+
+    /**
+     * Flushes written records to the storage device.
+     */
+    public synchronized void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void mapChunk() throws IOException {
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunks.length * CHUNK_SIZE, CHUNK_SIZE);
+        chunk.order(ByteOrder.LITTLE_ENDIAN);
+        MappedByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+        grown[chunks.length] = chunk;
+        chunks = grown;
+    }
+
+    private long recoverLastSequence() {
+        // Records are written contiguously, so the written ones form a prefix of the file
+        long low = 0;
+        long high = (long) chunks.length * RECORDS_PER_CHUNK;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            MappedByteBuffer buffer = chunks[(int) (mid >>> RECORDS_PER_CHUNK_SHIFT)];
+            int offset = (int) (mid & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+            if (buffer.getLong(offset + SEQUENCE) != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,42 @@
+package org.design.behavioral.observer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends interest changes to a journal in a temporary file, reopens it as after a restart
+ * and replays everything.
+ */
+public class JournalBenchmark {
+
+    private static final int APPENDS = 10_000_000;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("interest", ".journal");
+        try {
+            long start;
+            try (InterestJournal journal = new InterestJournal(file)) {
+                start = System.nanoTime();
+                for (int i = 0; i < APPENDS; i++) {
+                    journal.append(i & 1023, 1.0f + (i & 511) / 100.0f);
+                }
+                report("Appended", APPENDS, System.nanoTime() - start);
+            }
+
+            try (InterestJournal reopened = new InterestJournal(file)) {
+                System.out.printf("Recovered %,d records after reopening%n", reopened.getLastSequence());
+                double[] sum = new double[1];
+                start = System.nanoTime();
+                long next = reopened.replay(1, (sequence, timestamp, loanId, interest) -> sum[0] += interest);
+                report("Replayed", next - 1, System.nanoTime() - start);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void report(String action, long records, long nanos) {
+        System.out.printf("%s %,d records: %,.0f records/s%n", action, records, records * 1_000_000_000.0 / nanos);
+    }
+}
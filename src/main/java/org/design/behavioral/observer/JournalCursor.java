@@ -0,0 +1,42 @@
+package org.design.behavioral.observer;
+
+/**
+ * An observer's own position in an InterestJournal.
+ * The observer stores getOffset() wherever it likes and, after a restart, creates a cursor
+ * from that offset and calls catchUp() to receive every change of its loan it has missed.
+ */
+public class JournalCursor {
+
+    private final InterestJournal journal;
+    private final int loanId;
+    private final Observer observer;
+    private long offset;
+
+    public JournalCursor(InterestJournal journal, int loanId, Observer observer, long offset) {
+        this.journal = journal;
+        this.loanId = loanId;
+        this.observer = observer;
+        this.offset = offset;
+    }
+
+    /**
+     * Delivers the changes since the offset and returns how many were for this loan.
+     */
+    public int catchUp() {
+        int[] delivered = new int[1];
+        offset = journal.replay(offset, (sequence, timestamp, id, interest) -> {
+            if (id == loanId) {
+                observer.update(interest);
+                delivered[0]++;
+            }
+        });
+        return delivered[0];
+    }
+
+    /**
+     * Sequence of the next change to deliver.
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,5 @@
+package org.design.behavioral.observer;
+
+public interface JournalListener {
+    public void onRecord(long sequence, long timestamp, int loanId, float interest);
+}
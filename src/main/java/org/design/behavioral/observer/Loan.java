@@ -1,15 +1,25 @@
 package org.design.behavioral.observer;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class Loan implements  Subject{
-    private final List<Observer> observers = new ArrayList<Observer>();
+    private final ObserverRegistry observers;
     private String type;
-    private float interest;
-    private String bank;
+    private volatile float interest;
+    private volatile String bank;
+    // Set once a LoanBook indexes the loan, bank changes then go through it
+    private LoanBook book;
+
+    private volatile InterestJournal journal;
+    private int journalId;
 
     public Loan(String type, float interest, String bank) {
+        this(type, interest, bank, ForkJoinPool.commonPool());
+    }
+
+    // Large observer lists are notified in parallel shards on this pool
+    public Loan(String type, float interest, String bank, ForkJoinPool notificationPool) {
+        this.observers = new ObserverRegistry(notificationPool);
         this.type = type;
         this.interest = interest;
         this.bank = bank;
@@ -17,19 +27,55 @@ public class Loan implements  Subject{
 
     public void setInterest(float interest) {
         this.interest = interest;
+        InterestJournal current = journal;
+        if (current != null) {
+            current.append(journalId, interest);
+        }
+    }
+
+    // Every later interest change is also appended to the journal under this loan id
+    public void setJournal(InterestJournal journal, int loanId) {
+        this.journalId = loanId;
+        this.journal = journal;
+    }
+
+    public float getInterest() {
+        return interest;
+    }
+
+    public String getType() {
+        return type;
     }
 
     public String getBank() {
         return bank;
     }
 
-    public void setBank(String bank) {
+    // An indexed loan is moved to the new bank's index as well
+    public synchronized void setBank(String bank) {
+        if (book != null) {
+            book.changeBank(this, bank);
+        } else {
+            this.bank = bank;
+        }
+    }
+
+    // Called by LoanBook with the loan's monitor held, a loan belongs to one book at most
+    void attach(LoanBook book) {
+        if (this.book != null) {
+            throw new IllegalArgumentException("Loan is already in a LoanBook");
+        }
+        this.book = book;
+    }
+
+    // Called by LoanBook under its write lock
+    void assignBank(String bank) {
         this.bank = bank;
     }
 
     @Override
     public void registerObserver(Observer observer) {
-        observers.add(observer);
+        observers.register(observer);
     }
 
     @Override
@@ -39,9 +85,7 @@ public class Loan implements  Subject{
 
     @Override
     public void notifyObserver() {
-        for(Observer ob: observers) {
-            System.out.println("Notifying Observers on change in Loan interest rate");
-            ob.update(this.interest);
-        }
+        System.out.println("Notifying Observers on change in Loan interest rate");
+        observers.notifyObservers(this.interest);
     }
 }
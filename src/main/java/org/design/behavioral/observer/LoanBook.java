@@ -0,0 +1,166 @@
+package org.design.behavioral.observer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Indexes loans by bank and by type, and applies rate changes to a whole bank or type in one pass.
+ * Observers subscribe to a bank or a type and receive one batched update per rate change,
+ * instead of one update per loan. A loan belongs to one book at most, and changing the bank of a loan
+ * in the book moves it to the new bank's index.
+ */
+public class LoanBook {
+
+    private final Map<String, List<Loan>> byBank = new HashMap<>();
+    private final Map<String, List<Loan>> byType = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, List<LoanBookObserver>> bankSubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, List<LoanBookObserver>> typeSubscriptions = new ConcurrentHashMap<>();
+
+    public void add(Loan loan) {
+        // Lock order is loan, then book, as in Loan.setBank
+        synchronized (loan) {
+            loan.attach(this);
+            lock.writeLock().lock();
+            try {
+                byBank.computeIfAbsent(loan.getBank(), key -> new ArrayList<>()).add(loan);
+                byType.computeIfAbsent(loan.getType(), key -> new ArrayList<>()).add(loan);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Loan.setBank calls this with the loan's monitor held
+    void changeBank(Loan loan, String bank) {
+        lock.writeLock().lock();
+        try {
+            List<Loan> loans = byBank.get(loan.getBank());
+            if (loans != null && loans.remove(loan) && loans.isEmpty()) {
+                byBank.remove(loan.getBank());
+            }
+            loan.assignBank(bank);
+            byBank.computeIfAbsent(bank, key -> new ArrayList<>()).add(loan);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Loan> getLoansByBank(String bank) {
+        return copyOf(byBank, bank);
+    }
+
+    public List<Loan> getLoansByType(String type) {
+        return copyOf(byType, type);
+    }
+
+    public void subscribeBank(String bank, LoanBookObserver observer) {
+        bankSubscriptions.computeIfAbsent(bank, key -> new CopyOnWriteArrayList<>()).add(observer);
+    }
+
+    public void subscribeType(String type, LoanBookObserver observer) {
+        typeSubscriptions.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>()).add(observer);
+    }
+
+    public void unsubscribeBank(String bank, LoanBookObserver observer) {
+        List<LoanBookObserver> observers = bankSubscriptions.get(bank);
+        if (observers != null) {
+            observers.remove(observer);
+        }
+    }
+
+    public void unsubscribeType(String type, LoanBookObserver observer) {
+        List<LoanBookObserver> observers = typeSubscriptions.get(type);
+        if (observers != null) {
+            observers.remove(observer);
+        }
+    }
+
+    /**
+     * Sets the interest of every loan of the bank and returns how many loans changed.
+     */
+    public int setInterestForBank(String bank, float interest) {
+        return setInterest(byBank, bank, interest, bankSubscriptions, typeSubscriptions, Loan::getType);
+    }
+
+    /**
+     * Sets the interest of every loan of the type and returns how many loans changed.
+     */
+    public int setInterestForType(String type, float interest) {
+        return setInterest(byType, type, interest, typeSubscriptions, bankSubscriptions, Loan::getBank);
+    }
+
+    private int setInterest(Map<String, List<Loan>> index, String key, float interest,
+                            Map<String, List<LoanBookObserver>> direct,
+                            Map<String, List<LoanBookObserver>> other, Function<Loan, String> otherKeyOf) {
+        Loan[] changed;
+        // Loans grouped by the other dimension, only for keys somebody subscribed to
+        Map<String, List<Loan>> otherBatches = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            List<Loan> loans = index.get(key);
+            if (loans == null) {
+                return 0;
+            }
+            changed = loans.toArray(new Loan[0]);
+            boolean groupOther = hasSubscribers(other);
+            for (Loan loan : changed) {
+                loan.setInterest(interest);
+                if (groupOther) {
+                    String otherKey = otherKeyOf.apply(loan);
+                    List<LoanBookObserver> subscribers = other.get(otherKey);
+                    if (subscribers != null && !subscribers.isEmpty()) {
+                        otherBatches.computeIfAbsent(otherKey, k -> new ArrayList<>()).add(loan);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Notify outside the lock, so slow observers do not hold up other rate changes
+        notify(direct.get(key), Collections.unmodifiableList(Arrays.asList(changed)));
+        for (Map.Entry<String, List<Loan>> batch : otherBatches.entrySet()) {
+            notify(other.get(batch.getKey()), Collections.unmodifiableList(batch.getValue()));
+        }
+        return changed.length;
+    }
+
+    private static boolean hasSubscribers(Map<String, List<LoanBookObserver>> subscriptions) {
+        for (List<LoanBookObserver> observers : subscriptions.values()) {
+            if (!observers.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void notify(List<LoanBookObserver> observers, List<Loan> changedLoans) {
+        if (observers == null) {
+            return;
+        }
+        for (LoanBookObserver observer : observers) {
+            observer.update(changedLoans);
+        }
+    }
+
+    private List<Loan> copyOf(Map<String, List<Loan>> index, String key) {
+        lock.readLock().lock();
+        try {
+            List<Loan> loans = index.get(key);
+            return loans == null ? Collections.emptyList() : new ArrayList<>(loans);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
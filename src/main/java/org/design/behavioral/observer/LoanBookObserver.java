@@ -0,0 +1,8 @@
+package org.design.behavioral.observer;
+
+import java.util.List;
+
+public interface LoanBookObserver {
+    // Called once per bulk rate change with every loan matching the subscription
+    public void update(List<Loan> changedLoans);
+}
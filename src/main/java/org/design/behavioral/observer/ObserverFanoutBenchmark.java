@@ -0,0 +1,75 @@
+package org.design.behavioral.observer;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures ObserverRegistry notification time for growing observer counts and pool sizes,
+ * while another thread keeps registering and removing observers.
+ */
+public class ObserverFanoutBenchmark {
+
+    private static final int[] OBSERVER_COUNTS = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int ROUNDS = 50;
+
+    public static void main(String[] args) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int observers : OBSERVER_COUNTS) {
+            for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    run(observers, pool);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    private static void run(int count, ForkJoinPool pool) throws InterruptedException {
+        ObserverRegistry registry = new ObserverRegistry(pool);
+        for (int i = 0; i < count; i++) {
+            registry.register(new WorkingObserver());
+        }
+
+        // Churn the registry while notifications run, each of them must see a consistent snapshot
+        Thread churn = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                Observer extra = new WorkingObserver();
+                registry.register(extra);
+                registry.remove(extra);
+            }
+        });
+        churn.setDaemon(true);
+        churn.start();
+
+        for (int i = 0; i < ROUNDS; i++) {
+            registry.notifyObservers(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            registry.notifyObservers(i);
+        }
+        long nanos = (System.nanoTime() - start) / ROUNDS;
+
+        churn.interrupt();
+        churn.join();
+
+        System.out.printf("%,9d observers, parallelism %2d: %,10.1f us per notification (%.1f ns per observer)%n",
+                count, pool.getParallelism(), nanos / 1000.0, (double) nanos / count);
+    }
+
+    private static class WorkingObserver implements Observer {
+        private double payment;
+
+        @Override
+        public void update(float interest) {
+            // A few hundred nanoseconds of arithmetic, like recalculating a monthly payment
+            double monthly = interest / 1200.0;
+            double factor = 1.0;
+            for (int month = 0; month < 120; month++) {
+                factor *= 1.0 + monthly;
+            }
+            payment = 100_000 * monthly * factor / (factor - 1.0);
+        }
+    }
+}
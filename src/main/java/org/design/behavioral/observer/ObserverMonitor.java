@@ -0,0 +1,143 @@
+package org.design.behavioral.observer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runtime view of how every instrumented observer is doing.
+ * A subscriber is flagged as slow when its 99th percentile latency misses its budget.
+ * Everything is read from atomic counters, so it can be polled while rates are being published.
+ */
+public class ObserverMonitor {
+
+    private final Map<String, InstrumentedObserver> observers = new ConcurrentHashMap<>();
+    private final Map<String, QueueStats> queues = new ConcurrentHashMap<>();
+
+    public InstrumentedObserver instrument(String name, Observer observer, long latencyBudgetNanos) {
+        InstrumentedObserver instrumented = new InstrumentedObserver(observer, latencyBudgetNanos);
+        if (observers.putIfAbsent(name, instrumented) != null) {
+            throw new IllegalArgumentException("Observer already monitored: " + name);
+        }
+        return instrumented;
+    }
+
+    // Reports the queue of an AsyncObserver or ConflatingObserver wrapping the named observer
+    public void watchQueue(String name, QueueStats queue) {
+        if (!observers.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown observer: " + name);
+        }
+        queues.put(name, queue);
+    }
+
+    public void remove(String name) {
+        observers.remove(name);
+        queues.remove(name);
+    }
+
+    public List<ObserverStats> snapshot() {
+        List<ObserverStats> stats = new ArrayList<>();
+        for (Map.Entry<String, InstrumentedObserver> entry : observers.entrySet()) {
+            stats.add(statsOf(entry.getKey(), entry.getValue()));
+        }
+        return stats;
+    }
+
+    public List<String> getSlowSubscribers() {
+        List<String> slow = new ArrayList<>();
+        for (ObserverStats stats : snapshot()) {
+            if (stats.isSlow()) {
+                slow.add(stats.getName());
+            }
+        }
+        return slow;
+    }
+
+    private ObserverStats statsOf(String name, InstrumentedObserver observer) {
+        LatencyHistogram histogram = observer.getHistogram();
+        QueueStats queue = queues.get(name);
+        long max = observer.getMaxNanos();
+        // Bucket upper bounds can overshoot the largest latency actually seen
+        return new ObserverStats(name, histogram.getCount(),
+                Math.min(histogram.getPercentile(50), max), Math.min(histogram.getPercentile(99), max), max,
+                observer.getLatencyBudgetNanos(), observer.getBudgetMisses(),
+                queue == null ? 0 : queue.getQueueDepth(), queue == null ? 0 : queue.getDroppedCount());
+    }
+
+    public static final class ObserverStats {
+        private final String name;
+        private final long count;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+        private final long budgetNanos;
+        private final long budgetMisses;
+        private final int queueDepth;
+        private final long dropped;
+
+        ObserverStats(String name, long count, long p50Nanos, long p99Nanos, long maxNanos,
+                      long budgetNanos, long budgetMisses, int queueDepth, long dropped) {
+            this.name = name;
+            this.count = count;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+            this.budgetNanos = budgetNanos;
+            this.budgetMisses = budgetMisses;
+            this.queueDepth = queueDepth;
+            this.dropped = dropped;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public long getBudgetMisses() {
+            return budgetMisses;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public boolean isSlow() {
+            return count > 0 && p99Nanos > budgetNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "ObserverStats{" +
+                    "name='" + name + '\'' +
+                    ", count=" + count +
+                    ", p50Nanos=" + p50Nanos +
+                    ", p99Nanos=" + p99Nanos +
+                    ", maxNanos=" + maxNanos +
+                    ", budgetMisses=" + budgetMisses +
+                    ", queueDepth=" + queueDepth +
+                    ", dropped=" + dropped +
+                    ", slow=" + isSlow() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.design.behavioral.observer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Observer list that can be changed while a notification is running.
+ * Every notification works on an immutable array snapshot, which is rebuilt lazily
+ * after a registration or removal, so registering n observers costs O(n) instead of
+ * O(n^2) for a plain copy-on-write list. Large snapshots are fanned out in parallel shards.
+ */
+public class ObserverRegistry {
+
+    // Below this many observers a single thread is faster than forking
+    static final int PARALLEL_THRESHOLD = 8192;
+    static final int SHARD_SIZE = 2048;
+
+    private static final Observer[] EMPTY = new Observer[0];
+
+    private final ForkJoinPool pool;
+    private final List<Observer> observers = new ArrayList<>();
+    private volatile Observer[] snapshot = EMPTY;
+
+    public ObserverRegistry() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ObserverRegistry(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public synchronized void register(Observer observer) {
+        observers.add(observer);
+        snapshot = null;
+    }
+
+    public synchronized void remove(Observer observer) {
+        if (observers.remove(observer)) {
+            snapshot = null;
+        }
+    }
+
+    public Observer[] snapshot() {
+        Observer[] current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = observers.toArray(EMPTY);
+            }
+            return snapshot;
+        }
+    }
+
+    public int size() {
+        return snapshot().length;
+    }
+
+    public void notifyObservers(float interest) {
+        Observer[] current = snapshot();
+        if (current.length < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            notifyRange(current, 0, current.length, interest);
+        } else {
+            pool.invoke(new FanOut(current, 0, current.length, interest));
+        }
+    }
+
+    private static void notifyRange(Observer[] observers, int from, int to, float interest) {
+        for (int i = from; i < to; i++) {
+            observers[i].update(interest);
+        }
+    }
+
+    private static final class FanOut extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Observer[] observers;
+        private final int from;
+        private final int to;
+        private final float interest;
+
+        FanOut(Observer[] observers, int from, int to, float interest) {
+            this.observers = observers;
+            this.from = from;
+            this.to = to;
+            this.interest = interest;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SHARD_SIZE) {
+                notifyRange(observers, from, to, interest);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new FanOut(observers, from, mid, interest),
+                    new FanOut(observers, mid, to, interest));
+        }
+    }
+}
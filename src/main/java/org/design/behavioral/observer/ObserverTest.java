@@ -13,5 +13,35 @@ public class ObserverTest {
 
        loan.notifyObserver();
         System.out.println();
+
+        // Slow observers get their own consumer thread, the publisher only fills ring buffers,
+        // and the monitor times every delivery against a 1 ms budget
+        ObserverMonitor monitor = new ObserverMonitor();
+        try (AsyncObserver asyncNewspaper = new AsyncObserver(monitor.instrument("newspaper", newspaper, 1_000_000),
+                1024, BackpressurePolicy.DROP_OLDEST);
+             AsyncObserver asyncInternet = new AsyncObserver(monitor.instrument("internet", internet, 1_000_000),
+                     1024, BackpressurePolicy.CONFLATE)) {
+            monitor.watchQueue("newspaper", asyncNewspaper);
+            monitor.watchQueue("internet", asyncInternet);
+            Loan asyncLoan = new Loan("Home Loan", 8.5f, "Standard Charterd");
+            asyncLoan.registerObserver(asyncNewspaper);
+            asyncLoan.registerObserver(asyncInternet);
+            asyncLoan.setInterest(7.5f);
+            asyncLoan.notifyObserver();
+        }
+        monitor.snapshot().forEach(System.out::println);
+        System.out.println("Slow subscribers: " + monitor.getSlowSubscribers());
+        System.out.println();
+
+        // One batched update per subscription for a bank wide rate move
+        LoanBook book = new LoanBook();
+        book.add(new Loan("Personal Loan", 12.5f, "Standard Charterd"));
+        book.add(new Loan("Home Loan", 8.5f, "Standard Charterd"));
+        book.add(new Loan("Home Loan", 8.0f, "HSBC"));
+        book.subscribeBank("Standard Charterd", loans ->
+                System.out.println("Standard Charterd: " + loans.size() + " loans repriced"));
+        book.subscribeType("Home Loan", loans ->
+                System.out.println("Home Loan: " + loans.size() + " loans repriced"));
+        book.setInterestForBank("Standard Charterd", 9.0f);
     }
 }
@@ -0,0 +1,10 @@
+package org.design.behavioral.observer;
+
+/**
+ * Implemented by observers that buffer updates before delivering them.
+ * The values are read without stopping the publisher, so they are approximate while updates are in flight.
+ */
+public interface QueueStats {
+    public int getQueueDepth();
+    public long getDroppedCount();
+}
@@ -0,0 +1,50 @@
+package org.design.behavioral.strategy;
+
+/**
+ * Per strategy counts, totals and timings of one PaymentProcessor batch.
+ * Strategy i is the i-th strategy the processor was created with.
+ */
+public class BatchReport {
+
+    private final PaymentStrategy[] strategies;
+    private final int[] counts;
+    private final double[] totals;
+    private final long[] nanos;
+
+    BatchReport(PaymentStrategy[] strategies, int[] counts, double[] totals, long[] nanos) {
+        this.strategies = strategies;
+        this.counts = counts;
+        this.totals = totals;
+        this.nanos = nanos;
+    }
+
+    public int getCount(int strategy) {
+        return counts[strategy];
+    }
+
+    public double getTotal(int strategy) {
+        return totals[strategy];
+    }
+
+    public long getNanos(int strategy) {
+        return nanos[strategy];
+    }
+
+    public double getPaymentsPerSecond(int strategy) {
+        return nanos[strategy] == 0 ? 0 : counts[strategy] * 1_000_000_000.0 / nanos[strategy];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("BatchReport{");
+        for (int i = 0; i < strategies.length; i++) {
+            report.append(i == 0 ? "" : ", ")
+                    .append(strategies[i].getClass().getSimpleName())
+                    .append("=[count=").append(counts[i])
+                    .append(", total=").append(totals[i])
+                    .append(", paymentsPerSecond=").append(String.format("%.0f", getPaymentsPerSecond(i)))
+                    .append(']');
+        }
+        return report.append('}').toString();
+    }
+}
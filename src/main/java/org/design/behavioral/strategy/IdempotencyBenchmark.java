@@ -0,0 +1,57 @@
+package org.design.behavioral.strategy;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads an IdempotencyFilter with tens of millions of payment ids, then times lookups of
+ * a mix of retries and new payments and reports how many collections ran meanwhile.
+ * Usage: IdempotencyBenchmark [entries]
+ */
+public class IdempotencyBenchmark {
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        IdempotencyFilter filter = new IdempotencyFilter(entries + entries / 4, 1, TimeUnit.HOURS);
+
+        long start = System.nanoTime();
+        for (long id = 0; id < entries; id++) {
+            filter.firstSeen(id);
+        }
+        report("Inserted", entries, System.nanoTime() - start);
+
+        // Half retries of known ids, half new ids
+        int lookups = Math.min(entries / 2, 10_000_000);
+        long[] ids = new long[lookups];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < lookups; i++) {
+            ids[i] = (i & 1) == 0 ? random.nextLong(entries) : entries + i;
+        }
+
+        long collections = collectionCount();
+        int duplicates = 0;
+        start = System.nanoTime();
+        for (long id : ids) {
+            if (!filter.firstSeen(id)) {
+                duplicates++;
+            }
+        }
+        report("Checked", lookups, System.nanoTime() - start);
+        System.out.printf("%,d duplicates rejected, %,d ids held, %d collections during lookups%n",
+                duplicates, filter.size(), collectionCount() - collections);
+    }
+
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static void report(String action, long ids, long nanos) {
+        System.out.printf("%s %,d ids: %.1f ns per id%n", action, ids, (double) nanos / ids);
+    }
+}
@@ -0,0 +1,252 @@
+package org.design.behavioral.strategy;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers payment ids for a time to live, so a retried payment is recognised as a duplicate.
+ * Ids live off-heap in direct buffers, as an open-addressing table with linear probing.
+ * Each slot is 16 bytes, the payment id and a state word, which holds the expiry time shifted left by one
+ * and a committed bit in the lowest bit. A state word of 0 marks a free slot.
+ * <p>
+ * A payment first acquires its id, which holds it in flight so a concurrent retry is rejected,
+ * then commits it once the payment went through, or releases it when the payment failed,
+ * so the retry is accepted. An in-flight id that is never committed or released expires like any other.
+ * The table is split into independently locked segments, so lookups from different threads rarely
+ * wait for each other, and the garbage collector never sees the entries.
+ * Each segment allocates its buffer once. Expired ids are purged in place, and a purge runs only after
+ * 1/16 of the segment has filled up since the last one, so its cost is spread over many inserts.
+ */
+public class IdempotencyFilter {
+
+    private static final int SLOT_SIZE = 16;
+    private static final int EXPIRY = 8;
+    private static final int SEGMENTS = 64;
+    private static final double MAX_LOAD = 0.75;
+    // Inserts fail past this load, a segment only gets there when it holds far more live ids than it was sized for
+    private static final double FULL_LOAD = 0.875;
+    private static final int PURGE_FRACTION = 16;
+
+    private static final long IN_FLIGHT = 0;
+    private static final long COMMITTED = 1;
+    // Expired long ago, but not free, so probe chains through the slot stay intact
+    private static final long RELEASED = state(1, IN_FLIGHT);
+
+    private final long ttlMillis;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * Sizes the table for expectedEntries live payment ids.
+     */
+    public IdempotencyFilter(long expectedEntries, long ttl, TimeUnit unit) {
+        if (expectedEntries <= 0 || ttl <= 0) {
+            throw new IllegalArgumentException("Expected entries and time to live must be positive");
+        }
+        // Ids do not spread perfectly evenly, leave room for a few standard deviations per segment
+        double perSegment = (double) expectedEntries / SEGMENTS;
+        long needed = (long) ((perSegment + 4 * Math.sqrt(perSegment) + 16) / MAX_LOAD);
+        long slotsPerSegment = Long.highestOneBit(needed) << 1;
+        if (slotsPerSegment * SLOT_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many expected entries: " + expectedEntries);
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment((int) slotsPerSegment);
+        }
+        this.ttlMillis = unit.toMillis(ttl);
+    }
+
+    /**
+     * Records the payment id as committed and returns true if it was not seen within the time to live,
+     * returns false for a duplicate.
+     */
+    public boolean firstSeen(long paymentId) {
+        long hash = mix(paymentId);
+        return segment(hash).acquire(paymentId, hash, System.currentTimeMillis(), ttlMillis, COMMITTED);
+    }
+
+    /**
+     * Holds the payment id in flight and returns true if it is neither committed nor in flight,
+     * returns false for a duplicate. The caller must commit or release the id afterwards.
+     */
+    public boolean tryAcquire(long paymentId) {
+        long hash = mix(paymentId);
+        return segment(hash).acquire(paymentId, hash, System.currentTimeMillis(), ttlMillis, IN_FLIGHT);
+    }
+
+    // The payment went through, retries are rejected for the time to live
+    public void commit(long paymentId) {
+        long hash = mix(paymentId);
+        segment(hash).complete(paymentId, hash, state(System.currentTimeMillis() + ttlMillis, COMMITTED));
+    }
+
+    // The payment failed, the next attempt with this id is accepted
+    public void release(long paymentId) {
+        long hash = mix(paymentId);
+        segment(hash).complete(paymentId, hash, RELEASED);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.used();
+        }
+        return size;
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> 58)];
+    }
+
+    private static long state(long expiryMillis, long committed) {
+        return expiryMillis << 1 | committed;
+    }
+
+    private static long expiry(long state) {
+        return state >>> 1;
+    }
+
+    // Murmur3 finalizer, spreads sequential ids over the whole table
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int mask;
+        private final int firstPurge;
+        private final int maxUsed;
+        private final ByteBuffer slots;
+        // Slots holding an id, live or expired
+        private int used;
+        private int purgeAt;
+
+        Segment(int slotCount) {
+            this.mask = slotCount - 1;
+            this.firstPurge = (int) (slotCount * MAX_LOAD);
+            this.maxUsed = (int) (slotCount * FULL_LOAD);
+            this.purgeAt = firstPurge;
+            this.slots = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        }
+
+        boolean acquire(long key, long hash, long now, long ttlMillis, long committed) {
+            lock.lock();
+            try {
+                if (used >= purgeAt) {
+                    purgeExpired(now);
+                    if (used >= maxUsed) {
+                        throw new IllegalStateException("Idempotency table is full");
+                    }
+                }
+                int reusable = -1;
+                int slot = (int) hash & mask;
+                while (true) {
+                    int offset = slot * SLOT_SIZE;
+                    long state = slots.getLong(offset + EXPIRY);
+                    if (state == 0) {
+                        // Not in the table, take the first expired slot on the way or this free one
+                        if (reusable < 0) {
+                            reusable = offset;
+                            used++;
+                        }
+                        slots.putLong(reusable, key);
+                        slots.putLong(reusable + EXPIRY, state(now + ttlMillis, committed));
+                        return true;
+                    }
+                    if (slots.getLong(offset) == key) {
+                        if (expiry(state) > now) {
+                            return false;
+                        }
+                        slots.putLong(offset + EXPIRY, state(now + ttlMillis, committed));
+                        return true;
+                    }
+                    if (expiry(state) <= now && reusable < 0) {
+                        reusable = offset;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Sets the state of an id in the table, an id that is no longer there has nothing to update
+        void complete(long key, long hash, long state) {
+            lock.lock();
+            try {
+                int slot = (int) hash & mask;
+                while (true) {
+                    int offset = slot * SLOT_SIZE;
+                    if (slots.getLong(offset + EXPIRY) == 0) {
+                        return;
+                    }
+                    if (slots.getLong(offset) == key) {
+                        slots.putLong(offset + EXPIRY, state);
+                        return;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int used() {
+            lock.lock();
+            try {
+                return used;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Removes expired ids in place, the next purge waits until 1/16 of the segment has filled up again
+        private void purgeExpired(long now) {
+            int start = 0;
+            while (slots.getLong(start * SLOT_SIZE + EXPIRY) != 0) {
+                start++;
+            }
+            // Starting at a free slot, an id shifted back by remove always comes from a slot not visited yet
+            for (int n = 0; n <= mask; n++) {
+                int slot = (start + n) & mask;
+                long state = slots.getLong(slot * SLOT_SIZE + EXPIRY);
+                while (state != 0 && expiry(state) <= now) {
+                    remove(slot);
+                    used--;
+                    state = slots.getLong(slot * SLOT_SIZE + EXPIRY);
+                }
+            }
+            purgeAt = Math.min(maxUsed, Math.max(firstPurge, used + (mask + 1) / PURGE_FRACTION));
+        }
+
+        // Backward shift deletion: later ids of the probe chain move into the hole, so no lookup misses them
+        private void remove(int slot) {
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                int offset = next * SLOT_SIZE;
+                if (slots.getLong(offset + EXPIRY) == 0) {
+                    break;
+                }
+                long key = slots.getLong(offset);
+                int home = (int) mix(key) & mask;
+                // The id stays if its home slot lies cyclically in (hole, next]
+                boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                if (!stays) {
+                    slots.putLong(hole * SLOT_SIZE, key);
+                    slots.putLong(hole * SLOT_SIZE + EXPIRY, slots.getLong(offset + EXPIRY));
+                    hole = next;
+                }
+            }
+            slots.putLong(hole * SLOT_SIZE, 0);
+            slots.putLong(hole * SLOT_SIZE + EXPIRY, 0);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.design.behavioral.strategy;
 
+import java.util.concurrent.TimeUnit;
+
 public class Main {
 
     public static void main(String[] args) {
@@ -11,5 +13,42 @@ public class Main {
 
         PaymentProcessor paypalPaymentProcessor = new PaymentProcessor(new PaypalPaymentStrategy());
         paypalPaymentProcessor.processPayment(500);
+
+        // One processBatch call per strategy instead of one call per payment
+        PaymentProcessor batchProcessor = new PaymentProcessor(new DebitCardPaymentStrategy(),
+                new CreditCardPaymentStrategy(), new PaypalPaymentStrategy());
+        double[] amounts = {100, 1000, 500, 250, 75};
+        int[] methods = {0, 1, 2, 1, 0};
+        System.out.println(batchProcessor.processBatch(amounts, methods, amounts.length));
+
+        // Amounts in cents add up exactly in the settlement ledger
+        batchProcessor.processPaymentMinor(0, 10_010);
+        batchProcessor.processPaymentMinor(1, 99_999);
+        batchProcessor.processPaymentMinor(1, 1);
+        System.out.println(batchProcessor.getSettlementSnapshot());
+
+        // A retried payment with the same id is rejected
+        PaymentProcessor idempotentProcessor = new PaymentProcessor(new SettlementLedger(1),
+                new IdempotencyFilter(1_000, 1, TimeUnit.HOURS), new PaypalPaymentStrategy());
+        System.out.println("First attempt processed: " + idempotentProcessor.processPayment(42L, 500));
+        System.out.println("Retry processed: " + idempotentProcessor.processPayment(42L, 500));
+
+        // A failed payment releases its id, so the retry goes through
+        boolean[] gatewayDown = {true};
+        PaymentProcessor flakyProcessor = new PaymentProcessor(new SettlementLedger(1),
+                new IdempotencyFilter(1_000, 1, TimeUnit.HOURS), amount -> {
+                    if (gatewayDown[0]) {
+                        throw new IllegalStateException("gateway down");
+                    }
+                    System.out.println("Processing payment of amount " + amount);
+                });
+        try {
+            flakyProcessor.processPayment(43L, 250);
+        } catch (IllegalStateException e) {
+            System.out.println("First attempt failed: " + e.getMessage());
+        }
+        gatewayDown[0] = false;
+        System.out.println("Retry processed: " + flakyProcessor.processPayment(43L, 250));
+        System.out.println("Second retry processed: " + flakyProcessor.processPayment(43L, 250));
     }
 }
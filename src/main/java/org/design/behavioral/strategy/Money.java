@@ -0,0 +1,22 @@
+package org.design.behavioral.strategy;
+
+/**
+ * Helpers for amounts held as a long number of minor units (cents), which add up exactly.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    // Nearest minor unit of a floating point amount, for callers still using doubles
+    public static long toMinorUnits(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static String format(long minorUnits) {
+        // Split before taking the absolute value, Math.abs(Long.MIN_VALUE) is still negative
+        long units = Math.abs(minorUnits / 100);
+        long cents = Math.abs(minorUnits % 100);
+        return (minorUnits < 0 ? "-" : "") + units + (cents < 10 ? ".0" : ".") + cents;
+    }
+}
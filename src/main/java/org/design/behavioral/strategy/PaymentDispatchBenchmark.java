@@ -0,0 +1,272 @@
+package org.design.behavioral.strategy;
+
+import org.design.behavioral.strategy.withoutpattern.PaymentType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Compares ways of dispatching a payment to its payment type, all running the repo's real classes:
+ * the if/else chain of withoutpattern.PaymentProcessor, one strategy.PaymentProcessor per payment type,
+ * and the real PaymentStrategy classes looked up in an EnumMap, in an ordinal-indexed array, and
+ * wrapped in lambdas.
+ * <p>
+ * The JIT profiles each call site, so the mix a site has seen decides whether it is
+ * monomorphic, bimorphic or megamorphic. Every mix therefore runs in its own JVM,
+ * like a JMH fork. Pass a mix name to run just that one in the current JVM.
+ * The classes print every payment, so System.out is swapped for a sink that only counts the bytes,
+ * and every dispatch through the strategies must print the same number of bytes.
+ */
+public class PaymentDispatchBenchmark {
+
+    private static final int PAYMENTS = 1024 * 1024;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    // Share of credit card, debit card and PayPal payments
+    private enum Mix {
+        MONOMORPHIC(100, 0, 0),
+        BIMORPHIC(70, 30, 0),
+        MEGAMORPHIC(60, 30, 10);
+
+        private final int creditCard;
+        private final int debitCard;
+
+        Mix(int creditCard, int debitCard, int paypal) {
+            if (creditCard + debitCard + paypal != 100) {
+                throw new IllegalArgumentException("Mix must add up to 100%");
+            }
+            this.creditCard = creditCard;
+            this.debitCard = debitCard;
+        }
+
+        PaymentType pick(SplittableRandom random) {
+            int roll = random.nextInt(100);
+            if (roll < creditCard) {
+                return PaymentType.CREDIT_CARD;
+            }
+            return roll < creditCard + debitCard ? PaymentType.DEBIT_CARD : PaymentType.PAYPAL;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            run(Mix.valueOf(args[0]));
+            return;
+        }
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        int failed = 0;
+        for (Mix mix : Mix.values()) {
+            Process fork = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    PaymentDispatchBenchmark.class.getName(), mix.name())
+                    .inheritIO()
+                    .start();
+            int status = fork.waitFor();
+            if (status != 0) {
+                System.err.println(mix + " fork failed with exit status " + status);
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void run(Mix mix) {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] amounts = new double[PAYMENTS];
+        PaymentType[] types = new PaymentType[PAYMENTS];
+        for (int i = 0; i < PAYMENTS; i++) {
+            amounts[i] = 1 + random.nextInt(100_000) / 100.0;
+            types[i] = mix.pick(random);
+        }
+
+        Dispatch[] dispatches = {
+                new IfChainDispatch(),
+                new ProcessorDispatch(),
+                new EnumMapDispatch(),
+                new ArrayTableDispatch(),
+                new LambdaDispatch()
+        };
+
+        PrintStream report = System.out;
+        CountingSink sink = new CountingSink();
+        System.setOut(new PrintStream(sink, false));
+        long expectedBytes = -1;
+        try {
+            report.println(mix + " call sites:");
+            for (Dispatch dispatch : dispatches) {
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    dispatch.run(amounts, types);
+                }
+                long best = Long.MAX_VALUE;
+                long total = 0;
+                System.out.flush();
+                long bytesBefore = sink.bytes;
+                for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                    long start = System.nanoTime();
+                    dispatch.run(amounts, types);
+                    long nanos = System.nanoTime() - start;
+                    best = Math.min(best, nanos);
+                    total += nanos;
+                }
+                System.out.flush();
+                long bytes = sink.bytes - bytesBefore;
+                // The withoutpattern messages differ from the strategies' own, only the strategies must agree
+                if (!(dispatch instanceof IfChainDispatch)) {
+                    if (expectedBytes >= 0 && bytes != expectedBytes) {
+                        throw new IllegalStateException(dispatch.name() + " printed " + bytes
+                                + " bytes instead of " + expectedBytes);
+                    }
+                    expectedBytes = bytes;
+                }
+                report.printf("  %-26s %7.2f ns/payment (best %7.2f), %,d bytes printed%n", dispatch.name(),
+                        (double) total / MEASURED_ITERATIONS / PAYMENTS, (double) best / PAYMENTS, bytes);
+            }
+        } finally {
+            System.setOut(report);
+        }
+    }
+
+    // Stands in for the console, keeps only the number of bytes printed
+    private static final class CountingSink extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    private interface Dispatch {
+        String name();
+
+        void run(double[] amounts, PaymentType[] types);
+    }
+
+    private static final class IfChainDispatch implements Dispatch {
+        private final org.design.behavioral.strategy.withoutpattern.PaymentProcessor processor =
+                new org.design.behavioral.strategy.withoutpattern.PaymentProcessor();
+
+        @Override
+        public String name() {
+            return "withoutpattern if/else";
+        }
+
+        @Override
+        public void run(double[] amounts, PaymentType[] types) {
+            for (int i = 0; i < amounts.length; i++) {
+                processor.setPaymentType(types[i]);
+                processor.processPayment(amounts[i]);
+            }
+        }
+    }
+
+    // One strategy.PaymentProcessor per payment type, as Main sets them up
+    private static final class ProcessorDispatch implements Dispatch {
+        private final PaymentProcessor creditCard = new PaymentProcessor(new CreditCardPaymentStrategy());
+        private final PaymentProcessor debitCard = new PaymentProcessor(new DebitCardPaymentStrategy());
+        private final PaymentProcessor paypal = new PaymentProcessor(new PaypalPaymentStrategy());
+
+        @Override
+        public String name() {
+            return "strategy PaymentProcessor";
+        }
+
+        @Override
+        public void run(double[] amounts, PaymentType[] types) {
+            for (int i = 0; i < amounts.length; i++) {
+                PaymentProcessor processor;
+                switch (types[i]) {
+                    case CREDIT_CARD:
+                        processor = creditCard;
+                        break;
+                    case DEBIT_CARD:
+                        processor = debitCard;
+                        break;
+                    default:
+                        processor = paypal;
+                }
+                processor.processPayment(amounts[i]);
+            }
+        }
+    }
+
+    private static final class EnumMapDispatch implements Dispatch {
+        private final Map<PaymentType, PaymentStrategy> table = new EnumMap<>(PaymentType.class);
+
+        EnumMapDispatch() {
+            table.put(PaymentType.CREDIT_CARD, new CreditCardPaymentStrategy());
+            table.put(PaymentType.DEBIT_CARD, new DebitCardPaymentStrategy());
+            table.put(PaymentType.PAYPAL, new PaypalPaymentStrategy());
+        }
+
+        @Override
+        public String name() {
+            return "EnumMap of strategies";
+        }
+
+        @Override
+        public void run(double[] amounts, PaymentType[] types) {
+            for (int i = 0; i < amounts.length; i++) {
+                table.get(types[i]).processPayment(amounts[i]);
+            }
+        }
+    }
+
+    private static final class ArrayTableDispatch implements Dispatch {
+        private final PaymentStrategy[] table = new PaymentStrategy[PaymentType.values().length];
+
+        ArrayTableDispatch() {
+            table[PaymentType.CREDIT_CARD.ordinal()] = new CreditCardPaymentStrategy();
+            table[PaymentType.DEBIT_CARD.ordinal()] = new DebitCardPaymentStrategy();
+            table[PaymentType.PAYPAL.ordinal()] = new PaypalPaymentStrategy();
+        }
+
+        @Override
+        public String name() {
+            return "array of strategies";
+        }
+
+        @Override
+        public void run(double[] amounts, PaymentType[] types) {
+            for (int i = 0; i < amounts.length; i++) {
+                table[types[i].ordinal()].processPayment(amounts[i]);
+            }
+        }
+    }
+
+    // The real strategies behind lambdas, so the call site sees lambda classes instead
+    private static final class LambdaDispatch implements Dispatch {
+        private final PaymentStrategy creditCard = new CreditCardPaymentStrategy();
+        private final PaymentStrategy debitCard = new DebitCardPaymentStrategy();
+        private final PaymentStrategy paypal = new PaypalPaymentStrategy();
+        private final PaymentStrategy[] table = {
+                amount -> creditCard.processPayment(amount),
+                amount -> debitCard.processPayment(amount),
+                amount -> paypal.processPayment(amount)
+        };
+
+        @Override
+        public String name() {
+            return "lambda table";
+        }
+
+        @Override
+        public void run(double[] amounts, PaymentType[] types) {
+            for (int i = 0; i < amounts.length; i++) {
+                table[types[i].ordinal()].processPayment(amounts[i]);
+            }
+        }
+    }
+}
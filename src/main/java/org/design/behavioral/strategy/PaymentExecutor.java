@@ -0,0 +1,165 @@
+package org.design.behavioral.strategy;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs blocking payment strategies concurrently, with a bulkhead per strategy:
+ * a cap on how many of its payments run at once and a timeout for each payment.
+ * On a Java 21+ runtime every payment gets its own virtual thread, so blocked gateway
+ * calls cost almost nothing and 100k payments can be in flight. On older runtimes each
+ * bulkhead falls back to a fixed pool of platform threads sized to its limit.
+ */
+public class PaymentExecutor implements AutoCloseable {
+
+    private final Bulkhead[] bulkheads;
+    private final boolean virtualThreads;
+
+    private PaymentExecutor(Builder builder) {
+        this.bulkheads = new Bulkhead[builder.strategies.size()];
+        boolean virtual = true;
+        for (int i = 0; i < bulkheads.length; i++) {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor == null) {
+                virtual = false;
+                executor = Executors.newFixedThreadPool(builder.limits.get(i));
+            }
+            bulkheads[i] = new Bulkhead(builder.strategies.get(i), builder.limits.get(i),
+                    builder.timeouts.get(i), executor);
+        }
+        this.virtualThreads = virtual;
+    }
+
+    /**
+     * Submits a payment to the strategy with the given index, in the order they were added to the builder.
+     * The future completes with the payment's latency in nanoseconds, or with a TimeoutException.
+     */
+    public CompletableFuture<Long> submit(int strategy, double amount) {
+        if (strategy < 0 || strategy >= bulkheads.length) {
+            throw new IllegalArgumentException("Invalid payment strategy " + strategy);
+        }
+        return bulkheads[strategy].submit(amount);
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public static boolean isVirtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public int getInFlight(int strategy) {
+        return bulkheads[strategy].limit - bulkheads[strategy].permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        for (Bulkhead bulkhead : bulkheads) {
+            bulkhead.executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static final class Bulkhead {
+        private final PaymentStrategy strategy;
+        private final int limit;
+        private final long timeoutNanos;
+        private final Semaphore permits;
+        private final ExecutorService executor;
+
+        Bulkhead(PaymentStrategy strategy, int limit, long timeoutNanos, ExecutorService executor) {
+            this.strategy = strategy;
+            this.limit = limit;
+            this.timeoutNanos = timeoutNanos;
+            this.permits = new Semaphore(limit);
+            this.executor = executor;
+        }
+
+        CompletableFuture<Long> submit(double amount) {
+            long start = System.nanoTime();
+            CompletableFuture<Long> result = new CompletableFuture<>();
+            Future<?> task;
+            try {
+                task = executor.submit(() -> run(amount, start, result));
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+                return result;
+            }
+            // Stop a gateway call that outlives the timeout, its thread is freed for other payments
+            result.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS).whenComplete((latency, error) -> {
+                if (error instanceof TimeoutException) {
+                    task.cancel(true);
+                }
+            });
+            return result;
+        }
+
+        private void run(double amount, long start, CompletableFuture<Long> result) {
+            long remaining = timeoutNanos - (System.nanoTime() - start);
+            try {
+                if (!permits.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                    result.completeExceptionally(new TimeoutException("No capacity left in bulkhead"));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                result.completeExceptionally(e);
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                strategy.processPayment(amount);
+                result.complete(System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    public static class Builder {
+        private final List<PaymentStrategy> strategies = new ArrayList<>();
+        private final List<Integer> limits = new ArrayList<>();
+        private final List<Long> timeouts = new ArrayList<>();
+
+        public Builder bulkhead(PaymentStrategy strategy, int maxConcurrent, long timeout, TimeUnit unit) {
+            if (maxConcurrent <= 0) {
+                throw new IllegalArgumentException("Concurrency limit must be positive");
+            }
+            strategies.add(strategy);
+            limits.add(maxConcurrent);
+            timeouts.add(unit.toNanos(timeout));
+            return this;
+        }
+
+        public PaymentExecutor build() {
+            if (strategies.isEmpty()) {
+                throw new IllegalStateException("At least one bulkhead is required");
+            }
+            return new PaymentExecutor(this);
+        }
+    }
+}
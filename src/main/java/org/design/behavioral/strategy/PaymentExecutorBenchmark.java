@@ -0,0 +1,69 @@
+package org.design.behavioral.strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires a burst of payments at three simulated gateways and reports throughput and tail latency.
+ * Usage: PaymentExecutorBenchmark [payments] [limit per gateway]
+ */
+public class PaymentExecutorBenchmark {
+
+    public static void main(String[] args) {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        // Without virtual threads every permit of a bulkhead is a platform thread
+        int defaultLimit = PaymentExecutor.isVirtualThreadsAvailable() ? 50_000 : 500;
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : defaultLimit;
+
+        SimulatedGatewayPaymentStrategy creditCard = new SimulatedGatewayPaymentStrategy(20, 10);
+        SimulatedGatewayPaymentStrategy debitCard = new SimulatedGatewayPaymentStrategy(15, 5);
+        SimulatedGatewayPaymentStrategy paypal = new SimulatedGatewayPaymentStrategy(40, 20);
+
+        try (PaymentExecutor executor = new PaymentExecutor.Builder()
+                .bulkhead(creditCard, limit, 5, TimeUnit.SECONDS)
+                .bulkhead(debitCard, limit, 5, TimeUnit.SECONDS)
+                .bulkhead(paypal, limit, 5, TimeUnit.SECONDS)
+                .build()) {
+            System.out.println("Virtual threads: " + executor.isUsingVirtualThreads());
+
+            long[] latencies = new long[payments];
+            AtomicInteger failures = new AtomicInteger();
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[payments];
+            long start = System.nanoTime();
+            for (int i = 0; i < payments; i++) {
+                int index = i;
+                futures[i] = executor.submit(i % 3, 10 + i % 1000)
+                        .whenComplete((latency, error) -> {
+                            if (error == null) {
+                                latencies[index] = latency;
+                            } else {
+                                latencies[index] = -1;
+                                failures.incrementAndGet();
+                            }
+                        });
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (RuntimeException e) {
+                // Individual failures are counted above
+            }
+            long elapsed = System.nanoTime() - start;
+
+            long[] completed = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+            System.out.printf("%,d payments in %.2f s: %,.0f payments/s, %,d failed or timed out%n",
+                    payments, elapsed / 1e9, payments * 1e9 / elapsed, failures.get());
+            if (completed.length > 0) {
+                System.out.printf("Latency p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+                        percentile(completed, 50), percentile(completed, 99),
+                        percentile(completed, 99.9), completed[completed.length - 1] / 1e6);
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * percentile / 100.0) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
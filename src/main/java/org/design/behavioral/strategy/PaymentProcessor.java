@@ -4,11 +4,150 @@ public class PaymentProcessor {
 
     private final PaymentStrategy paymentStrategy;
 
+    // Strategy i handles batch payments with method i
+    private final PaymentStrategy[] strategies;
+
+    // Running totals of minor unit payments, indexed like strategies
+    private final SettlementLedger ledger;
+
+    // Rejects retried payments, null when payments carry no id
+    private final IdempotencyFilter idempotencyFilter;
+
     public PaymentProcessor(PaymentStrategy paymentStrategy) {
-        this.paymentStrategy = paymentStrategy;
+        this(new PaymentStrategy[]{paymentStrategy});
+    }
+
+    // The first strategy also handles single payments
+    public PaymentProcessor(PaymentStrategy... strategies) {
+        this(new SettlementLedger(strategies.length), strategies);
+    }
+
+    public PaymentProcessor(SettlementLedger ledger, PaymentStrategy... strategies) {
+        this(ledger, null, strategies);
+    }
+
+    public PaymentProcessor(SettlementLedger ledger, IdempotencyFilter idempotencyFilter,
+                            PaymentStrategy... strategies) {
+        if (strategies.length == 0) {
+            throw new IllegalArgumentException("At least one payment strategy is required");
+        }
+        if (ledger.getStrategyCount() < strategies.length) {
+            throw new IllegalArgumentException("Settlement ledger has " + ledger.getStrategyCount()
+                    + " strategies, the processor needs " + strategies.length);
+        }
+        this.paymentStrategy = strategies[0];
+        this.strategies = strategies.clone();
+        this.ledger = ledger;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     public void processPayment(double amount) {
         paymentStrategy.processPayment(amount);
     }
+
+    // Exact path, the amount is in minor units and is added to the settlement ledger
+    public void processPaymentMinor(long amountMinor) {
+        processPaymentMinor(0, amountMinor);
+    }
+
+    public void processPaymentMinor(int method, long amountMinor) {
+        if (method < 0 || method >= strategies.length) {
+            throw new IllegalArgumentException("Invalid payment method " + method);
+        }
+        // Fail before the payment goes out, not after it when it can no longer be recorded
+        ledger.checkRecord(method, amountMinor);
+        strategies[method].processPaymentMinor(amountMinor);
+        ledger.record(method, amountMinor);
+    }
+
+    /**
+     * Processes the payment unless a payment with the same id was already processed or is in flight,
+     * returns false for such a duplicate. If the payment throws, its id is released so it can be retried.
+     */
+    public boolean processPayment(long paymentId, double amount) {
+        IdempotencyFilter filter = requireIdempotencyFilter();
+        if (!filter.tryAcquire(paymentId)) {
+            return false;
+        }
+        boolean processed = false;
+        try {
+            processPayment(amount);
+            processed = true;
+        } finally {
+            complete(filter, paymentId, processed);
+        }
+        return true;
+    }
+
+    public boolean processPaymentMinor(long paymentId, int method, long amountMinor) {
+        IdempotencyFilter filter = requireIdempotencyFilter();
+        if (!filter.tryAcquire(paymentId)) {
+            return false;
+        }
+        boolean processed = false;
+        try {
+            processPaymentMinor(method, amountMinor);
+            processed = true;
+        } finally {
+            complete(filter, paymentId, processed);
+        }
+        return true;
+    }
+
+    private static void complete(IdempotencyFilter filter, long paymentId, boolean processed) {
+        if (processed) {
+            filter.commit(paymentId);
+        } else {
+            filter.release(paymentId);
+        }
+    }
+
+    private IdempotencyFilter requireIdempotencyFilter() {
+        if (idempotencyFilter == null) {
+            throw new IllegalStateException("Payment ids need a PaymentProcessor with an IdempotencyFilter");
+        }
+        return idempotencyFilter;
+    }
+
+    public SettlementLedger.Snapshot getSettlementSnapshot() {
+        return ledger.snapshot();
+    }
+
+    /**
+     * Processes the first length payments, where methods[i] is the index of the strategy for amounts[i].
+     * Amounts are grouped by strategy with a counting sort, so each strategy gets one processBatch call.
+     */
+    public BatchReport processBatch(double[] amounts, int[] methods, int length) {
+        int[] counts = new int[strategies.length];
+        for (int i = 0; i < length; i++) {
+            int method = methods[i];
+            if (method < 0 || method >= strategies.length) {
+                throw new IllegalArgumentException("Invalid payment method " + method + " at index " + i);
+            }
+            counts[method]++;
+        }
+
+        int[] starts = new int[strategies.length];
+        for (int s = 1; s < strategies.length; s++) {
+            starts[s] = starts[s - 1] + counts[s - 1];
+        }
+        double[] grouped = new double[length];
+        int[] next = starts.clone();
+        double[] totals = new double[strategies.length];
+        for (int i = 0; i < length; i++) {
+            int method = methods[i];
+            grouped[next[method]++] = amounts[i];
+            totals[method] += amounts[i];
+        }
+
+        long[] nanos = new long[strategies.length];
+        for (int s = 0; s < strategies.length; s++) {
+            if (counts[s] > 0) {
+                long start = System.nanoTime();
+                strategies[s].processBatch(grouped, starts[s], counts[s]);
+                nanos[s] = System.nanoTime() - start;
+            }
+        }
+        return new BatchReport(strategies.clone(), counts, totals, nanos);
+    }
 }
@@ -2,4 +2,25 @@ package org.design.behavioral.strategy;
 
 public interface PaymentStrategy {
     void processPayment(double amount);
+
+    // Exact variant, the amount is a whole number of minor units such as cents
+    default void processPaymentMinor(long amountMinor) {
+        processPayment(amountMinor / 100.0);
+    }
+
+    // Processes amounts[offset, offset + length), strategies override it to pay per batch instead of per payment
+    default void processBatch(double[] amounts, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            processPayment(amounts[i]);
+        }
+    }
+
+    // Sum of amounts[offset, offset + length), for batch overrides that charge the total once
+    static double total(double[] amounts, int offset, int length) {
+        double total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            total += amounts[i];
+        }
+        return total;
+    }
 }
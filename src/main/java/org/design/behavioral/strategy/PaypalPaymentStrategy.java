@@ -5,4 +5,15 @@ public class PaypalPaymentStrategy implements  PaymentStrategy{
     public void processPayment(double amount) {
         System.out.println("Processing PayPal payment of amount " + amount);
     }
+
+    @Override
+    public void processPaymentMinor(long amountMinor) {
+        System.out.println("Processing PayPal payment of amount " + Money.format(amountMinor));
+    }
+
+    @Override
+    public void processBatch(double[] amounts, int offset, int length) {
+        double total = PaymentStrategy.total(amounts, offset, length);
+        System.out.println("Processing batch of " + length + " PayPal payments, total amount " + total);
+    }
 }
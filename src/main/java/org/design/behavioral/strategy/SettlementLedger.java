@@ -0,0 +1,151 @@
+package org.design.behavioral.strategy;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Running settlement count and total, in minor units, per payment strategy.
+ * Updates go to one of several padded stripes picked by thread, so payment threads rarely
+ * share a lock or a cache line. A snapshot locks every stripe at once, which gives totals
+ * that are consistent with each other, for reconciliation.
+ */
+public class SettlementLedger {
+
+    // Longs of padding around the counters, one cache line on each side
+    private static final int PADDING = 8;
+
+    private final int strategyCount;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public SettlementLedger(int strategyCount) {
+        this(strategyCount, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public SettlementLedger(int strategyCount, int stripeCount) {
+        this.strategyCount = strategyCount;
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(strategyCount);
+        }
+        this.mask = size - 1;
+    }
+
+    public int getStrategyCount() {
+        return strategyCount;
+    }
+
+    /**
+     * Throws what record would throw for this payment, an invalid strategy or a total that would overflow,
+     * so a caller can check before the money moves. The overflow check is exact unless another thread
+     * sharing the stripe records in between.
+     */
+    public void checkRecord(int strategy, long amountMinor) {
+        checkStrategy(strategy);
+        Stripe stripe = stripes[stripeIndex()];
+        stripe.lock.lock();
+        try {
+            Math.addExact(stripe.cells[PADDING + strategyCount + strategy], amountMinor);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void record(int strategy, long amountMinor) {
+        checkStrategy(strategy);
+        Stripe stripe = stripes[stripeIndex()];
+        stripe.lock.lock();
+        try {
+            long[] cells = stripe.cells;
+            cells[PADDING + strategy]++;
+            cells[PADDING + strategyCount + strategy] =
+                    Math.addExact(cells[PADDING + strategyCount + strategy], amountMinor);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Counts and totals as of one instant: no payment is seen half recorded.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[strategyCount];
+        long[] totals = new long[strategyCount];
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            for (Stripe stripe : stripes) {
+                for (int s = 0; s < strategyCount; s++) {
+                    counts[s] += stripe.cells[PADDING + s];
+                    totals[s] = Math.addExact(totals[s], stripe.cells[PADDING + strategyCount + s]);
+                }
+            }
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlock();
+            }
+        }
+        return new Snapshot(counts, totals);
+    }
+
+    private void checkStrategy(int strategy) {
+        if (strategy < 0 || strategy >= strategyCount) {
+            throw new IllegalArgumentException("Invalid strategy: " + strategy);
+        }
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        // Spread consecutive thread ids over the stripes
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Counts, then totals, with a cache line of padding on either side
+        private final long[] cells;
+
+        Stripe(int strategyCount) {
+            this.cells = new long[PADDING + 2 * strategyCount + PADDING];
+        }
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long[] totalsMinor;
+
+        Snapshot(long[] counts, long[] totalsMinor) {
+            this.counts = counts;
+            this.totalsMinor = totalsMinor;
+        }
+
+        public long getCount(int strategy) {
+            return counts[strategy];
+        }
+
+        public long getTotalMinor(int strategy) {
+            return totalsMinor[strategy];
+        }
+
+        public long getGrandTotalMinor() {
+            long total = 0;
+            for (long strategyTotal : totalsMinor) {
+                total = Math.addExact(total, strategyTotal);
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder snapshot = new StringBuilder("Snapshot{");
+            for (int i = 0; i < counts.length; i++) {
+                snapshot.append(i == 0 ? "" : ", ")
+                        .append(i).append("=[count=").append(counts[i])
+                        .append(", total=").append(Money.format(totalsMinor[i])).append(']');
+            }
+            return snapshot.append(", grandTotal=").append(Money.format(getGrandTotalMinor())).append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.design.behavioral.strategy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for a remote payment gateway: every payment blocks for a tunable latency,
+ * so executors can be load tested without a real card network or PayPal account.
+ */
+public class SimulatedGatewayPaymentStrategy implements PaymentStrategy {
+
+    private final long latencyMicros;
+    private final long jitterMicros;
+    private final LongAdder processed = new LongAdder();
+
+    public SimulatedGatewayPaymentStrategy(long latencyMillis, long jitterMillis) {
+        this.latencyMicros = TimeUnit.MILLISECONDS.toMicros(latencyMillis);
+        this.jitterMicros = TimeUnit.MILLISECONDS.toMicros(jitterMillis);
+    }
+
+    @Override
+    public void processPayment(double amount) {
+        long micros = latencyMicros;
+        if (jitterMicros > 0) {
+            micros += ThreadLocalRandom.current().nextLong(jitterMicros + 1);
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payment interrupted", e);
+        }
+        processed.increment();
+    }
+
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+}
@@ -1,17 +1,201 @@
 package org.design.creational.prototype;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Concurrent registry of document templates. Templates can be added, replaced and removed while
+ * other threads create documents, and a hot template can get a pool of clones made ahead of time.
+ * The pool is refilled in the background once it drops to half its capacity, so bursts of
+ * createDocument calls take a ready clone instead of cloning. Replacing a template drops its pool,
+ * a createDocument call that starts after replaceTemplate returns never gets a clone of the old template.
+ * If the executor rejects a refill, createDocument keeps cloning inline until a later refill is accepted.
+ */
 public class DocumentManager {
 
-    public Map<String, Document> documentTemplate = new HashMap<>();
+    private final Map<String, Template> documentTemplate = new ConcurrentHashMap<>();
+    private final Executor refillExecutor;
 
+    public DocumentManager() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Pools are refilled on this executor
+    public DocumentManager(Executor refillExecutor) {
+        this.refillExecutor = refillExecutor;
+    }
+
+    // Adding over an existing key replaces that template, see replaceTemplate
     public void addTemplate(String key, Document doc){
-        documentTemplate.put(key, doc);
+        swap(key, doc, false);
+    }
+
+    /**
+     * Atomically swaps the template for the key and returns the previous one.
+     * A pooled template stays pooled with the same capacity, its pool is refilled with clones of the new one.
+     */
+    public Document replaceTemplate(String key, Document doc) {
+        return swap(key, doc, true).prototype;
+    }
+
+    private Template swap(String key, Document doc, boolean mustExist) {
+        Template[] replaced = new Template[1];
+        Template replacement = documentTemplate.compute(key, (k, current) -> {
+            if (current == null && mustExist) {
+                throw new IllegalArgumentException("No template for " + key);
+            }
+            replaced[0] = current;
+            return new Template(doc, current == null || current.pool == null ? null : new ClonePool(current.pool.capacity));
+        });
+        if (replaced[0] != null) {
+            replaced[0].close();
+        }
+        replacement.refill();
+        return replaced[0];
+    }
+
+    public Document removeTemplate(String key) {
+        Template removed = documentTemplate.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        removed.close();
+        return removed.prototype;
+    }
+
+    /**
+     * Keeps up to capacity clones of the template ready, filled in the background.
+     */
+    public void enablePool(String key, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        Template[] previous = new Template[1];
+        Template pooled = documentTemplate.compute(key, (k, current) -> {
+            if (current == null) {
+                throw new IllegalArgumentException("No template for " + key);
+            }
+            previous[0] = current;
+            return new Template(current.prototype, new ClonePool(capacity));
+        });
+        previous[0].close();
+        pooled.refill();
     }
 
     public Document createDocument(String key){
-        return documentTemplate.get(key).clone();
+        Template template = documentTemplate.get(key);
+        if (template == null) {
+            throw new IllegalArgumentException("No template for " + key);
+        }
+        return template.take();
+    }
+
+    /**
+     * Clones ready in the template's pool, 0 if it has none.
+     */
+    public int getPooledCount(String key) {
+        Template template = documentTemplate.get(key);
+        return template == null || template.pool == null ? 0 : template.pool.size.get();
+    }
+
+    /**
+     * Waits until no refill of the template's pool is queued or running.
+     */
+    public void awaitRefill(String key) throws InterruptedException {
+        Template template = documentTemplate.get(key);
+        if (template == null || template.pool == null) {
+            return;
+        }
+        ClonePool pool = template.pool;
+        synchronized (pool) {
+            while (pool.refilling.get() && !pool.closed) {
+                pool.wait();
+            }
+        }
+    }
+
+    private final class Template {
+        private final Document prototype;
+        private final ClonePool pool;
+
+        Template(Document prototype, ClonePool pool) {
+            this.prototype = prototype;
+            this.pool = pool;
+        }
+
+        Document take() {
+            if (pool == null) {
+                return prototype.clone();
+            }
+            Document document = pool.clones.poll();
+            if (document == null) {
+                return prototype.clone();
+            }
+            if (pool.size.decrementAndGet() <= pool.capacity / 2) {
+                refill();
+            }
+            return document;
+        }
+
+        // At most one refill per pool is queued or running
+        void refill() {
+            if (pool != null && !pool.closed && pool.refilling.compareAndSet(false, true)) {
+                try {
+                    refillExecutor.execute(this::fill);
+                } catch (RejectedExecutionException e) {
+                    // Takes clone inline once the pool is empty, the next take below half retries the refill
+                    pool.refilled();
+                }
+            }
+        }
+
+        private void fill() {
+            while (true) {
+                while (!pool.closed && pool.size.get() < pool.capacity) {
+                    pool.clones.offer(prototype.clone());
+                    pool.size.incrementAndGet();
+                }
+                pool.refilled();
+                // A take may have missed the flag while it was still set
+                if (pool.closed || pool.size.get() >= pool.capacity || !pool.refilling.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            if (pool != null) {
+                pool.closed = true;
+                pool.clones.clear();
+                synchronized (pool) {
+                    pool.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static final class ClonePool {
+        private final int capacity;
+        private final Queue<Document> clones = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile boolean closed;
+
+        ClonePool(int capacity) {
+            this.capacity = capacity;
+        }
+
+        // Clears the flag and wakes awaitRefill
+        synchronized void refilled() {
+            refilling.set(false);
+            notifyAll();
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,7 @@ package org.design.creational.prototype;
 
 public class PrototypePatternDemo {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         DocumentManager docManager = new DocumentManager();
         docManager.addTemplate("contract", new Contract("Acme Corp", "Standard Terms"));
         docManager.addTemplate("resume", new Resume("John Doe", "Java, Spring Boot"));
@@ -12,5 +12,17 @@ public class PrototypePatternDemo {
 
         contractClone.printContent();
         resumeClone.printContent();
+
+        // Keep clones of a hot template ready, refilled in the background
+        docManager.enablePool("contract", 16);
+        for (int i = 0; i < 10; i++) {
+            docManager.createDocument("contract");
+        }
+        docManager.awaitRefill("contract");
+        System.out.println("Pooled contracts: " + docManager.getPooledCount("contract"));
+
+        // Swap a template atomically, its pool is refilled with the new one
+        docManager.replaceTemplate("contract", new Contract("Acme Corp", "Premium Terms"));
+        docManager.createDocument("contract").printContent();
     }
 }
@@ -0,0 +1,194 @@
+package org.design.structural.adpater;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache in front of any Database, for example an SQLDatabaseAdapter or NoSQLDatabaseAdapter.
+ * Hits are served from a ConcurrentHashMap without locking. When the cache is over its size,
+ * a few entries are sampled with a clock-like cursor and the least frequently requested one,
+ * according to a frequency sketch, is evicted. Concurrent misses on the same query share one fetch.
+ * Queries are opaque, so any save or delete may change any result: writes invalidate the whole
+ * cache at once by moving to a new generation.
+ */
+public class CachingDatabase implements Database {
+
+    private static final int EVICTION_SAMPLE = 5;
+    private static final Object NULL = new Object();
+
+    private final Database delegate;
+    private final int maximumSize;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Map<String, Load> loading = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final AtomicLong generation = new AtomicLong();
+    private Iterator<Map.Entry<String, Entry>> evictionCursor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingDatabase(Database delegate, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public void save(Object data) {
+        try {
+            delegate.save(data);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public Object fetch(String query) {
+        sketch.increment(query);
+        long current = generation.get();
+        Entry entry = cache.get(query);
+        if (entry != null && entry.generation == current) {
+            hits.increment();
+            return unwrap(entry.value);
+        }
+        misses.increment();
+
+        // Only one caller per query and generation goes to the database, the others wait for its result
+        Load load = new Load(current);
+        Load existing = loading.putIfAbsent(query, load);
+        if (existing != null && existing.generation == current) {
+            try {
+                return unwrap(existing.result.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        // Take over from a load started before the last write, its result is already stale
+        boolean registered = existing == null || loading.replace(query, existing, load);
+        try {
+            Object value = delegate.fetch(query);
+            Object stored = value == null ? NULL : value;
+            // A write during the fetch may have made the value stale, then it is not cached
+            if (generation.get() == current) {
+                cache.put(query, new Entry(stored, current));
+                if (cache.size() > maximumSize) {
+                    evict();
+                }
+            }
+            load.result.complete(stored);
+            return value;
+        } catch (RuntimeException e) {
+            load.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (registered) {
+                loading.remove(query, load);
+            }
+        }
+    }
+
+    @Override
+    public void delete(String query) {
+        try {
+            delegate.delete(query);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void saveAll(List<?> data) {
+        try {
+            delegate.saveAll(data);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void deleteAll(List<String> queries) {
+        try {
+            delegate.deleteAll(queries);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private synchronized void evict() {
+        while (cache.size() > maximumSize) {
+            String victim = null;
+            int victimFrequency = Integer.MAX_VALUE;
+            for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                if (evictionCursor == null || !evictionCursor.hasNext()) {
+                    evictionCursor = cache.entrySet().iterator();
+                    if (!evictionCursor.hasNext()) {
+                        return;
+                    }
+                }
+                String key = evictionCursor.next().getKey();
+                int frequency = sketch.frequency(key);
+                if (frequency < victimFrequency) {
+                    victim = key;
+                    victimFrequency = frequency;
+                }
+            }
+            if (cache.remove(victim) != null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static Object unwrap(Object value) {
+        return value == NULL ? null : value;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long generation;
+
+        Entry(Object value, long generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+
+    private static final class Load {
+        private final long generation;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Load(long generation) {
+            this.generation = generation;
+        }
+    }
+}
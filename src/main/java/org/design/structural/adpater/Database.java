@@ -1,8 +1,58 @@
 package org.design.structural.adpater;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 // Target Interface (Database)
 public interface Database {
     void save(Object data);
     Object fetch(String query);
     void delete(String query);
+
+    // Batch operations, adapters override them with one round trip per batch
+    default void saveAll(List<?> data) {
+        for (Object item : data) {
+            save(item);
+        }
+    }
+
+    default List<Object> fetchAll(List<String> queries) {
+        List<Object> results = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            results.add(fetch(query));
+        }
+        return results;
+    }
+
+    default void deleteAll(List<String> queries) {
+        for (String query : queries) {
+            delete(query);
+        }
+    }
+
+    // Asynchronous variants, run on the common fork-join pool unless an adapter knows better
+    default CompletableFuture<Void> saveAsync(Object data) {
+        return CompletableFuture.runAsync(() -> save(data));
+    }
+
+    default CompletableFuture<Object> fetchAsync(String query) {
+        return CompletableFuture.supplyAsync(() -> fetch(query));
+    }
+
+    default CompletableFuture<Void> deleteAsync(String query) {
+        return CompletableFuture.runAsync(() -> delete(query));
+    }
+
+    default CompletableFuture<Void> saveAllAsync(List<?> data) {
+        return CompletableFuture.runAsync(() -> saveAll(data));
+    }
+
+    default CompletableFuture<List<Object>> fetchAllAsync(List<String> queries) {
+        return CompletableFuture.supplyAsync(() -> fetchAll(queries));
+    }
+
+    default CompletableFuture<Void> deleteAllAsync(List<String> queries) {
+        return CompletableFuture.runAsync(() -> deleteAll(queries));
+    }
 }
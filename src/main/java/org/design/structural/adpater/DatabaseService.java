@@ -1,14 +1,31 @@
 package org.design.structural.adpater;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 public class DatabaseService {
 
     public void performOperation(Database database) {
         database.save(new Object());
-        database.fetch("SELECT * FROM users");
+        System.out.println("Fetched: " + database.fetch("SELECT * FROM users"));
         database.delete("DELETE FROM users WHERE id = 1");
     }
 
-    public static void main(String[] args) {
+    // One round trip per batch instead of one per item
+    public void performBulkOperation(Database database) {
+        database.saveAll(Arrays.asList(new Object(), new Object(), new Object()));
+        System.out.println("Fetched: "
+                + database.fetchAll(Arrays.asList("SELECT * FROM users WHERE id = 1", "SELECT * FROM users WHERE id = 2")));
+        database.deleteAllAsync(Arrays.asList("DELETE FROM users WHERE id = 1", "DELETE FROM users WHERE id = 2"))
+                .join();
+    }
+
+    public static void main(String[] args) throws IOException {
         DatabaseService databaseService = new DatabaseService();
 
         //Using SQL Database
@@ -22,5 +39,64 @@ public class DatabaseService {
         NoSQLDatabase noSQLDatabase = new NoSQLDatabase();
         NoSQLDatabaseAdapter noSQLDatabaseAdapter = new NoSQLDatabaseAdapter(noSQLDatabase);
         databaseService.performOperation(noSQLDatabaseAdapter);
+
+        System.out.println("------------------");
+
+        //Bulk operations
+        databaseService.performBulkOperation(sqlDatabaseAdapter);
+        databaseService.performBulkOperation(noSQLDatabaseAdapter);
+
+        System.out.println("------------------");
+
+        //Indexed queries
+        Map<String, Object> alice = new HashMap<>();
+        alice.put("id", 10);
+        alice.put("name", "Alice");
+        alice.put("age", 34);
+        Map<String, Object> bob = new HashMap<>();
+        bob.put("id", 11);
+        bob.put("name", "Bob");
+        bob.put("age", 27);
+        sqlDatabase.createIndex("age");
+        sqlDatabaseAdapter.saveAll(Arrays.asList(alice, bob));
+        System.out.println("Aged 30 to 40: " + sqlDatabaseAdapter.fetch("SELECT * FROM users WHERE age BETWEEN 30 AND 40"));
+        noSQLDatabase.createIndex("name");
+        noSQLDatabaseAdapter.saveAll(Arrays.asList(alice, bob));
+        System.out.println("Named Bob: " + noSQLDatabaseAdapter.fetch("{name: 'Bob'}"));
+        //Documents can also arrive in their binary form
+        Map<String, Object> dave = new HashMap<>();
+        dave.put("name", "Dave");
+        dave.put("age", 52);
+        noSQLDatabaseAdapter.save(DocumentCodec.encode(dave));
+        System.out.println("Named Dave: " + noSQLDatabaseAdapter.fetch("{name: 'Dave'}"));
+
+        System.out.println("------------------");
+
+        //Repeated reads are served from the cache until the next write
+        CachingDatabase cachingDatabase = new CachingDatabase(sqlDatabaseAdapter, 1_000);
+        cachingDatabase.fetch("SELECT * FROM users");
+        cachingDatabase.fetch("SELECT * FROM users");
+        databaseService.performOperation(cachingDatabase);
+        System.out.println("Cache hits: " + cachingDatabase.getHitCount()
+                + ", misses: " + cachingDatabase.getMissCount());
+
+        System.out.println("------------------");
+
+        //Saves are queued and group committed, flush makes them visible
+        Path log = Files.createTempFile("write-behind", ".log");
+        try (WriteBehindDatabase writeBehind = new WriteBehindDatabase.Builder(sqlDatabaseAdapter, log)
+                .maxBatchSize(100)
+                .maxDelay(5, TimeUnit.MILLISECONDS)
+                .build()) {
+            Map<String, Object> carol = new HashMap<>();
+            carol.put("id", 12);
+            carol.put("name", "Carol");
+            carol.put("age", 41);
+            writeBehind.save(carol);
+            writeBehind.flush();
+            System.out.println("After flush: " + writeBehind.fetch("SELECT * FROM users WHERE id = 12"));
+        } finally {
+            Files.deleteIfExists(log);
+        }
     }
 }
@@ -0,0 +1,204 @@
+package org.design.structural.adpater;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compact binary form of a document, written to and read from any ByteBuffer, heap, direct or mapped.
+ * <pre>
+ * int length                    whole document in bytes
+ * int fieldCount
+ * fieldCount x (int nameOffset, int valueOffset, byte type)   sorted by UTF-8 name
+ * names                         short length + UTF-8 bytes each
+ * values                        LONG and DOUBLE 8 bytes, STRING and BYTES int length + bytes,
+ *                               DOCUMENT a nested document, NULL, TRUE and FALSE take no space
+ * </pre>
+ * Offsets are relative to the start of the document and all numbers are big-endian, whatever the
+ * order of the buffer. Because the field table is sorted, DocumentView finds a field with a binary
+ * search and reads only that field's bytes.
+ * Longs, ints, shorts and bytes are stored as LONG, floats and doubles as DOUBLE, byte[] as BYTES
+ * and nested maps as DOCUMENT.
+ */
+public final class DocumentCodec {
+
+    static final int HEADER_SIZE = 8;
+    static final int ENTRY_SIZE = 9;
+    static final int NAME_OFFSET = 0;
+    static final int VALUE_OFFSET = 4;
+    static final int TYPE = 8;
+
+    private DocumentCodec() {
+    }
+
+    /**
+     * Encodes the document into a new heap buffer of exactly its size, positioned at 0.
+     */
+    public static ByteBuffer encode(Map<String, ?> document) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(document));
+        encode(document, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encodes the document at the buffer's position, advances the position past it and returns its length.
+     * Throws BufferOverflowException if the buffer has too little room left, leaving the position unchanged.
+     */
+    public static int encode(Map<String, ?> document, ByteBuffer target) {
+        ByteBuffer out = target.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int length = write(document, out);
+        target.position(target.position() + length);
+        return length;
+    }
+
+    /**
+     * Returns a lazy view of the document at the buffer's position, the position is not moved.
+     */
+    public static DocumentView view(ByteBuffer source) {
+        return view(source, source.position());
+    }
+
+    public static DocumentView view(ByteBuffer source, int offset) {
+        return new DocumentView(source.duplicate().order(ByteOrder.BIG_ENDIAN), offset);
+    }
+
+    /**
+     * Decodes every field of the document at the buffer's position and advances the position past it.
+     */
+    public static Map<String, Object> decode(ByteBuffer source) {
+        DocumentView view = view(source);
+        source.position(source.position() + view.getEncodedLength());
+        return view.toMap();
+    }
+
+    public static int encodedSize(Map<String, ?> document) {
+        int size = HEADER_SIZE;
+        for (Map.Entry<String, ?> field : document.entrySet()) {
+            size += ENTRY_SIZE + Short.BYTES + utf8(field.getKey()).length + valueSize(field.getValue());
+        }
+        return size;
+    }
+
+    private static int write(Map<String, ?> document, ByteBuffer out) {
+        int start = out.position();
+        Field[] fields = new Field[document.size()];
+        int count = 0;
+        for (Map.Entry<String, ?> field : document.entrySet()) {
+            byte[] name = utf8(field.getKey());
+            if (name.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Field name is too long: " + field.getKey().length());
+            }
+            fields[count++] = new Field(name, field.getValue());
+        }
+        Arrays.sort(fields, (left, right) -> Arrays.compareUnsigned(left.name, right.name));
+
+        int table = start + HEADER_SIZE;
+        if (table + fields.length * ENTRY_SIZE > out.limit()) {
+            throw new BufferOverflowException();
+        }
+        out.position(table + fields.length * ENTRY_SIZE);
+        for (int i = 0; i < fields.length; i++) {
+            out.putInt(table + i * ENTRY_SIZE + NAME_OFFSET, out.position() - start);
+            out.putShort((short) fields[i].name.length);
+            out.put(fields[i].name);
+        }
+        for (int i = 0; i < fields.length; i++) {
+            int entry = table + i * ENTRY_SIZE;
+            FieldType type = typeOf(fields[i].value);
+            out.put(entry + TYPE, (byte) type.ordinal());
+            out.putInt(entry + VALUE_OFFSET, out.position() - start);
+            writeValue(type, fields[i].value, out);
+        }
+        int length = out.position() - start;
+        out.putInt(start, length);
+        out.putInt(start + 4, fields.length);
+        return length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(FieldType type, Object value, ByteBuffer out) {
+        switch (type) {
+            case LONG:
+                out.putLong(((Number) value).longValue());
+                break;
+            case DOUBLE:
+                out.putDouble(((Number) value).doubleValue());
+                break;
+            case STRING:
+                byte[] text = utf8((String) value);
+                out.putInt(text.length);
+                out.put(text);
+                break;
+            case BYTES:
+                byte[] bytes = (byte[]) value;
+                out.putInt(bytes.length);
+                out.put(bytes);
+                break;
+            case DOCUMENT:
+                write((Map<String, ?>) value, out);
+                break;
+            default:
+                // NULL, TRUE and FALSE are all in the type
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int valueSize(Object value) {
+        switch (typeOf(value)) {
+            case LONG:
+            case DOUBLE:
+                return 8;
+            case STRING:
+                return Integer.BYTES + utf8((String) value).length;
+            case BYTES:
+                return Integer.BYTES + ((byte[]) value).length;
+            case DOCUMENT:
+                return encodedSize((Map<String, ?>) value);
+            default:
+                return 0;
+        }
+    }
+
+    private static FieldType typeOf(Object value) {
+        if (value == null) {
+            return FieldType.NULL;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? FieldType.TRUE : FieldType.FALSE;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return FieldType.LONG;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return FieldType.DOUBLE;
+        }
+        if (value instanceof String) {
+            return FieldType.STRING;
+        }
+        if (value instanceof byte[]) {
+            return FieldType.BYTES;
+        }
+        if (value instanceof Map) {
+            return FieldType.DOCUMENT;
+        }
+        throw new IllegalArgumentException("Unsupported field type: " + value.getClass().getName());
+    }
+
+    static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Field {
+        private final byte[] name;
+        private final Object value;
+
+        Field(byte[] name, Object value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
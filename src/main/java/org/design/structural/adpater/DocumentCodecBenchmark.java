@@ -0,0 +1,123 @@
+package org.design.structural.adpater;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Compares DocumentCodec with Java serialization of the same HashMap documents:
+ * encode and decode throughput, reading a single field lazily, and bytes per document.
+ * Usage: DocumentCodecBenchmark [operations]
+ */
+public class DocumentCodecBenchmark {
+
+    private static final int DOCUMENTS = 10_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        List<Map<String, Object>> documents = documents(random);
+
+        // Encoded once up front for the decode runs
+        ByteBuffer[] encoded = new ByteBuffer[DOCUMENTS];
+        byte[][] serialized = new byte[DOCUMENTS][];
+        long codecBytes = 0;
+        long serializedBytes = 0;
+        for (int i = 0; i < DOCUMENTS; i++) {
+            encoded[i] = DocumentCodec.encode(documents.get(i));
+            serialized[i] = serialize(documents.get(i), new ByteArrayOutputStream());
+            codecBytes += encoded[i].remaining();
+            serializedBytes += serialized[i].length;
+        }
+        System.out.printf("Bytes per document: codec %d, Java serialization %d%n",
+                codecBytes / DOCUMENTS, serializedBytes / DOCUMENTS);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(64 * 1024);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.println("Round " + (round + 1) + ":");
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                direct.clear();
+                sink += DocumentCodec.encode(documents.get(i % DOCUMENTS), direct);
+            }
+            report("codec encode", operations, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                sink += serialize(documents.get(i % DOCUMENTS), bytes).length;
+            }
+            report("serialization encode", operations, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                sink += DocumentCodec.decode(encoded[i % DOCUMENTS].duplicate()).size();
+            }
+            report("codec decode", operations, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                sink += deserialize(serialized[i % DOCUMENTS]).size();
+            }
+            report("serialization decode", operations, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                sink += DocumentCodec.view(encoded[i % DOCUMENTS]).getLong("age");
+            }
+            report("codec lazy field", operations, System.nanoTime() - start);
+        }
+        System.out.println("(" + sink + ")");
+    }
+
+    private static List<Map<String, Object>> documents(SplittableRandom random) {
+        List<Map<String, Object>> documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Map<String, Object> address = new HashMap<>();
+            address.put("street", random.nextInt(1_000) + " Main Street");
+            address.put("city", "city-" + random.nextInt(1_000));
+            address.put("zip", (long) random.nextInt(100_000));
+
+            Map<String, Object> document = new HashMap<>();
+            document.put("_id", (long) i);
+            document.put("name", "user-" + i);
+            document.put("email", "user-" + i + "@example.com");
+            document.put("age", (long) (18 + random.nextInt(60)));
+            document.put("score", random.nextDouble() * 100);
+            document.put("active", random.nextBoolean());
+            document.put("avatar", new byte[16 + random.nextInt(48)]);
+            document.put("address", address);
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    private static byte[] serialize(Map<String, Object> document, ByteArrayOutputStream bytes) throws IOException {
+        bytes.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(document);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Map<String, Object>) in.readObject();
+        }
+    }
+
+    private static void report(String name, int operations, long nanos) {
+        System.out.printf("  %-22s %6.0f ns per document%n", name, (double) nanos / operations);
+    }
+}
@@ -0,0 +1,203 @@
+package org.design.structural.adpater;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads single fields of a DocumentCodec document in place, without decoding the rest of it.
+ * A field is found by a binary search over the sorted field table, and only its bytes are read.
+ * The view holds on to the buffer, it is only valid while the bytes are not overwritten.
+ */
+public final class DocumentView {
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int fieldCount;
+
+    DocumentView(ByteBuffer buffer, int start) {
+        this.buffer = buffer;
+        this.start = start;
+        this.fieldCount = buffer.getInt(start + 4);
+    }
+
+    public int getEncodedLength() {
+        return buffer.getInt(start);
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public List<String> getFieldNames() {
+        List<String> names = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            names.add(name(i));
+        }
+        return names;
+    }
+
+    public boolean has(String field) {
+        return find(field) >= 0;
+    }
+
+    /**
+     * Returns the field's type, or null if the document has no such field.
+     */
+    public FieldType getType(String field) {
+        int entry = find(field);
+        return entry < 0 ? null : type(entry);
+    }
+
+    public long getLong(String field) {
+        return buffer.getLong(value(field, FieldType.LONG));
+    }
+
+    public double getDouble(String field) {
+        return buffer.getDouble(value(field, FieldType.DOUBLE));
+    }
+
+    public boolean getBoolean(String field) {
+        int entry = require(field);
+        FieldType type = type(entry);
+        if (type != FieldType.TRUE && type != FieldType.FALSE) {
+            throw new IllegalArgumentException("Field " + field + " is " + type + ", not a boolean");
+        }
+        return type == FieldType.TRUE;
+    }
+
+    public String getString(String field) {
+        return string(value(field, FieldType.STRING));
+    }
+
+    public byte[] getBytes(String field) {
+        return bytes(value(field, FieldType.BYTES));
+    }
+
+    public DocumentView getDocument(String field) {
+        return new DocumentView(buffer, value(field, FieldType.DOCUMENT));
+    }
+
+    /**
+     * Returns the field as a Java value, the way DocumentCodec.decode would, or null if it is missing.
+     */
+    public Object get(String field) {
+        int entry = find(field);
+        return entry < 0 ? null : read(entry);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> document = new HashMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            document.put(name(i), read(i));
+        }
+        return Collections.unmodifiableMap(document);
+    }
+
+    private Object read(int entry) {
+        int offset = start + buffer.getInt(entryOffset(entry) + DocumentCodec.VALUE_OFFSET);
+        switch (type(entry)) {
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case LONG:
+                return buffer.getLong(offset);
+            case DOUBLE:
+                return buffer.getDouble(offset);
+            case STRING:
+                return string(offset);
+            case BYTES:
+                return bytes(offset);
+            case DOCUMENT:
+                return new DocumentView(buffer, offset).toMap();
+            default:
+                return null;
+        }
+    }
+
+    // Binary search over the field table, comparing UTF-8 names as unsigned bytes like the encoder sorted them
+    private int find(String field) {
+        byte[] key = DocumentCodec.utf8(field);
+        int low = 0;
+        int high = fieldCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compared = compareName(mid, key);
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareName(int entry, byte[] key) {
+        int name = start + buffer.getInt(entryOffset(entry) + DocumentCodec.NAME_OFFSET);
+        int length = buffer.getShort(name);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int compared = Integer.compare(buffer.get(name + 2 + i) & 0xff, key[i] & 0xff);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String name(int entry) {
+        int name = start + buffer.getInt(entryOffset(entry) + DocumentCodec.NAME_OFFSET);
+        byte[] bytes = new byte[buffer.getShort(name)];
+        copy(name + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int require(String field) {
+        int entry = find(field);
+        if (entry < 0) {
+            throw new IllegalArgumentException("No such field: " + field);
+        }
+        return entry;
+    }
+
+    private int value(String field, FieldType expected) {
+        int entry = require(field);
+        if (type(entry) != expected) {
+            throw new IllegalArgumentException("Field " + field + " is " + type(entry) + ", not " + expected);
+        }
+        return start + buffer.getInt(entryOffset(entry) + DocumentCodec.VALUE_OFFSET);
+    }
+
+    private FieldType type(int entry) {
+        return FieldType.of(buffer.get(entryOffset(entry) + DocumentCodec.TYPE));
+    }
+
+    private int entryOffset(int entry) {
+        return start + DocumentCodec.HEADER_SIZE + entry * DocumentCodec.ENTRY_SIZE;
+    }
+
+    private String string(int offset) {
+        byte[] bytes = bytes(offset);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] bytes(int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        copy(offset + 4, bytes);
+        return bytes;
+    }
+
+    // Absolute bulk get is Java 13+, so copy through a duplicate
+    private void copy(int offset, byte[] target) {
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(target);
+    }
+}
@@ -0,0 +1,24 @@
+package org.design.structural.adpater;
+
+/**
+ * Type tags of the fields in a DocumentCodec document.
+ */
+public enum FieldType {
+    NULL,
+    TRUE,
+    FALSE,
+    LONG,
+    DOUBLE,
+    STRING,
+    BYTES,
+    DOCUMENT;
+
+    private static final FieldType[] TAGS = values();
+
+    static FieldType of(byte tag) {
+        if (tag < 0 || tag >= TAGS.length) {
+            throw new IllegalArgumentException("Invalid field type tag: " + tag);
+        }
+        return TAGS[tag];
+    }
+}
@@ -0,0 +1,63 @@
+package org.design.structural.adpater;
+
+/**
+ * Count-min sketch estimating how often each key was requested, in a fixed amount of memory.
+ * Counters saturate at 15 and are all halved periodically, so old popularity fades away.
+ * Increments from different threads may race, which only makes the estimate slightly lower.
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int[] counters;
+    private final int mask;
+    private final int resetAfter;
+    private int additions;
+
+    FrequencySketch(int expectedKeys) {
+        int width = Integer.highestOneBit(Math.max(16, expectedKeys) - 1) << 1;
+        this.counters = new int[width * DEPTH];
+        this.mask = width - 1;
+        this.resetAfter = 10 * width;
+    }
+
+    void increment(Object key) {
+        int hash = key.hashCode();
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(hash, row);
+            if (counters[index] < MAX_COUNT) {
+                counters[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= resetAfter) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = key.hashCode();
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[index(hash, row)]);
+        }
+        return frequency;
+    }
+
+    private int index(int hash, int row) {
+        long mixed = (hash + SEEDS[row]) * SEEDS[row];
+        return row * (mask + 1) + ((int) (mixed >>> 32) & mask);
+    }
+
+    private void reset() {
+        additions = 0;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+    }
+}
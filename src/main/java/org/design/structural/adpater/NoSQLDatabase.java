@@ -1,17 +1,282 @@
 package org.design.structural.adpater;
 
-// Adaptee (NoSQLDatabase)
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Adaptee (NoSQLDatabase), an in-memory document collection.
+ * Documents are field maps keyed by their "_id" field, and createIndex adds a hash index on a field.
+ * A query lists the fields a document must equal, {type: 'admin', age: 30}, and {} matches every document.
+ * Numbers are equal when their values are, so {age: 30} matches a stored 30.0 as SQLDatabase does.
+ * The query is answered from the most selective indexed field, the other fields filter its candidates.
+ * Readers share a read lock, writers take the write lock.
+ */
 public class NoSQLDatabase {
+
+    public static final String ID = "_id";
+
+    private static final Pattern FIELD =
+            Pattern.compile("\\G\\s*(\\w+)\\s*:\\s*(" + QueryCondition.LITERAL + ")\\s*(?:,|$)");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Keyed by Values.key of the _id
+    private final Map<Object, Map<String, Object>> documents = new HashMap<>();
+    // Values.key of a field value to the ids of the documents holding it
+    private final Map<String, Map<Object, Set<Object>>> indexes = new HashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * Inserts a document, or replaces the document with the same _id. A map, or a ByteBuffer holding a
+     * DocumentCodec document at its position, is taken as the document's fields and gets a generated _id
+     * if it has none, any other object is stored in a "value" field.
+     * Generated ids are never below an explicit whole number _id inserted before, so they never replace it.
+     */
     public void insertDocument(Object Document) {
-        System.out.println("Saving Document in NOSQL Database.");
+        Map<String, Object> document = toDocument(Document);
+        lock.writeLock().lock();
+        try {
+            put(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
+    /**
+     * Returns the matching documents as a List of unmodifiable field maps.
+     */
     public Object findDocument(String query) {
-        System.out.println("Fetching Document from NOSQL Database.");
-        return new Object();
+        Map<String, Object> fields = parse(query);
+        lock.readLock().lock();
+        try {
+            return find(fields);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public void removeDocument(String query) {
-        System.out.println("Removing Document from NOSQL Database.");
+        Map<String, Object> fields = parse(query);
+        lock.writeLock().lock();
+        try {
+            remove(fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void insertDocuments(List<?> documents) {
+        List<Map<String, Object>> converted = new ArrayList<>(documents.size());
+        for (Object document : documents) {
+            converted.add(toDocument(document));
+        }
+        lock.writeLock().lock();
+        try {
+            for (Map<String, Object> document : converted) {
+                put(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Object> findDocuments(List<String> queries) {
+        List<Map<String, Object>> parsed = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            parsed.add(parse(query));
+        }
+        List<Object> results = new ArrayList<>(queries.size());
+        lock.readLock().lock();
+        try {
+            for (Map<String, Object> fields : parsed) {
+                results.add(find(fields));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    public void removeDocuments(List<String> queries) {
+        List<Map<String, Object>> parsed = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            parsed.add(parse(query));
+        }
+        lock.writeLock().lock();
+        try {
+            for (Map<String, Object> fields : parsed) {
+                remove(fields);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a hash index on the field, built from the documents already stored.
+     */
+    public void createIndex(String field) {
+        if (ID.equals(field)) {
+            throw new IllegalArgumentException("The _id field is already indexed");
+        }
+        lock.writeLock().lock();
+        try {
+            if (indexes.containsKey(field)) {
+                return;
+            }
+            Map<Object, Set<Object>> index = new HashMap<>();
+            indexes.put(field, index);
+            for (Map<String, Object> document : documents.values()) {
+                addToIndex(index, document.get(field), Values.key(document.get(ID)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Object> parse(String query) {
+        String text = query.trim();
+        if (text.startsWith("{") && text.endsWith("}")) {
+            text = text.substring(1, text.length() - 1).trim();
+        }
+        Map<String, Object> fields = new HashMap<>();
+        Matcher matcher = FIELD.matcher(text);
+        int end = 0;
+        while (end < text.length() && matcher.find()) {
+            fields.put(matcher.group(1), Values.parseLiteral(matcher.group(2)));
+            end = matcher.end();
+        }
+        if (end < text.length()) {
+            throw new IllegalArgumentException("Unsupported query: " + query);
+        }
+        return fields;
+    }
+
+    private Map<String, Object> toDocument(Object data) {
+        Map<String, Object> document = new HashMap<>();
+        if (data instanceof ByteBuffer) {
+            document.putAll(DocumentCodec.decode(((ByteBuffer) data).duplicate()));
+        } else if (data instanceof Map) {
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) data).entrySet()) {
+                document.put(String.valueOf(field.getKey()), Values.normalize(field.getValue()));
+            }
+        } else {
+            document.put("value", data);
+        }
+        if (document.get(ID) == null) {
+            document.put(ID, nextId.getAndIncrement());
+        } else {
+            Values.reserveId(nextId, document.get(ID));
+        }
+        return Collections.unmodifiableMap(document);
+    }
+
+    private void put(Map<String, Object> document) {
+        Object id = Values.key(document.get(ID));
+        Map<String, Object> old = documents.put(id, document);
+        for (Map.Entry<String, Map<Object, Set<Object>>> index : indexes.entrySet()) {
+            if (old != null) {
+                removeFromIndex(index.getValue(), old.get(index.getKey()), id);
+            }
+            addToIndex(index.getValue(), document.get(index.getKey()), id);
+        }
+    }
+
+    private List<Map<String, Object>> find(Map<String, Object> fields) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (fields.containsKey(ID)) {
+            Map<String, Object> document = documents.get(Values.key(fields.get(ID)));
+            if (document != null && matches(document, fields)) {
+                result.add(document);
+            }
+            return result;
+        }
+        Set<Object> candidates = null;
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Map<Object, Set<Object>> index = indexes.get(field.getKey());
+            if (index != null) {
+                Set<Object> ids = index.getOrDefault(Values.key(field.getValue()), Collections.emptySet());
+                if (candidates == null || ids.size() < candidates.size()) {
+                    candidates = ids;
+                }
+            }
+        }
+        if (candidates != null) {
+            for (Object id : candidates) {
+                Map<String, Object> document = documents.get(id);
+                if (matches(document, fields)) {
+                    result.add(document);
+                }
+            }
+            return result;
+        }
+        for (Map<String, Object> document : documents.values()) {
+            if (matches(document, fields)) {
+                result.add(document);
+            }
+        }
+        return result;
+    }
+
+    private void remove(Map<String, Object> fields) {
+        if (fields.isEmpty()) {
+            documents.clear();
+            for (Map<Object, Set<Object>> index : indexes.values()) {
+                index.clear();
+            }
+            return;
+        }
+        for (Map<String, Object> document : find(fields)) {
+            Object id = Values.key(document.get(ID));
+            documents.remove(id);
+            for (Map.Entry<String, Map<Object, Set<Object>>> index : indexes.entrySet()) {
+                removeFromIndex(index.getValue(), document.get(index.getKey()), id);
+            }
+        }
+    }
+
+    private static boolean matches(Map<String, Object> document, Map<String, Object> fields) {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (!Values.key(field.getValue()).equals(Values.key(document.get(field.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addToIndex(Map<Object, Set<Object>> index, Object value, Object id) {
+        if (value != null) {
+            index.computeIfAbsent(Values.key(value), v -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removeFromIndex(Map<Object, Set<Object>> index, Object value, Object id) {
+        if (value == null) {
+            return;
+        }
+        Object key = Values.key(value);
+        Set<Object> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
     }
 }
@@ -1,7 +1,19 @@
 package org.design.structural.adpater;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public class NoSQLDatabaseAdapter implements Database{
 
+    // SELECT * FROM table or DELETE FROM table, with an optional WHERE condition
+    private static final Pattern SQL =
+            Pattern.compile("^\\s*(?:(?i:SELECT)\\s+\\*|(?i:DELETE))\\s+(?i:FROM)\\s+\\w+(?:\\s+(?i:WHERE)\\s+(.+?))?\\s*;?\\s*$");
+
     private NoSQLDatabase noSQLDatabase;
 
     public NoSQLDatabaseAdapter(NoSQLDatabase noSQLDatabase) {
@@ -10,16 +22,82 @@ public class NoSQLDatabaseAdapter implements Database{
 
     @Override
     public void save(Object data) {
-        noSQLDatabase.insertDocument(data);
+        noSQLDatabase.insertDocument(toDocument(data));
     }
 
     @Override
     public Object fetch(String query) {
-        return noSQLDatabase.findDocument(query);
+        return noSQLDatabase.findDocument(toDocumentQuery(query));
     }
 
     @Override
     public void delete(String query) {
-        noSQLDatabase.removeDocument(query);
+        noSQLDatabase.removeDocument(toDocumentQuery(query));
+    }
+
+    @Override
+    public void saveAll(List<?> data) {
+        List<Object> documents = new ArrayList<>(data.size());
+        for (Object item : data) {
+            documents.add(toDocument(item));
+        }
+        noSQLDatabase.insertDocuments(documents);
+    }
+
+    @Override
+    public List<Object> fetchAll(List<String> queries) {
+        return noSQLDatabase.findDocuments(toDocumentQueries(queries));
+    }
+
+    @Override
+    public void deleteAll(List<String> queries) {
+        noSQLDatabase.removeDocuments(toDocumentQueries(queries));
+    }
+
+    // A row's id column becomes the document's _id, as it does in queries
+    private static Object toDocument(Object data) {
+        if (!(data instanceof Map) || !((Map<?, ?>) data).containsKey(SQLDatabase.ID)) {
+            return data;
+        }
+        Map<Object, Object> document = new HashMap<>((Map<?, ?>) data);
+        document.put(NoSQLDatabase.ID, document.remove(SQLDatabase.ID));
+        return document;
+    }
+
+    private static List<String> toDocumentQueries(List<String> queries) {
+        List<String> translated = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            translated.add(toDocumentQuery(query));
+        }
+        return translated;
+    }
+
+    /**
+     * Translates SQL with an equality condition into a document query, the id column becoming _id.
+     * Document queries are passed through unchanged.
+     */
+    private static String toDocumentQuery(String query) {
+        Matcher sql = SQL.matcher(query);
+        if (!sql.matches()) {
+            return query;
+        }
+        if (sql.group(1) == null) {
+            return "{}";
+        }
+        QueryCondition condition = QueryCondition.parse(sql.group(1));
+        if (!condition.isEquality()) {
+            throw new IllegalArgumentException("Only equality conditions can be run on NoSQL: " + query);
+        }
+        String field = SQLDatabase.ID.equals(condition.getColumn()) ? NoSQLDatabase.ID : condition.getColumn();
+        Object value = condition.getLow();
+        String literal;
+        if (value instanceof String) {
+            literal = "'" + ((String) value).replace("'", "''") + "'";
+        } else if (value instanceof Double) {
+            literal = BigDecimal.valueOf((Double) value).toPlainString();
+        } else {
+            literal = value.toString();
+        }
+        return "{" + field + ": " + literal + "}";
     }
 }
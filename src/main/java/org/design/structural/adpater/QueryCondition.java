@@ -0,0 +1,105 @@
+package org.design.structural.adpater;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single column condition of a WHERE clause: column = v, column &lt; v, &lt;=, &gt;, &gt;=,
+ * or column BETWEEN a AND b, kept as a range with optional, inclusive or exclusive ends.
+ */
+final class QueryCondition {
+
+    static final String LITERAL = "'(?:[^']|'')*'|[-+]?\\d+(?:\\.\\d+)?|(?i:true|false)";
+
+    private static final Pattern COMPARISON =
+            Pattern.compile("^(\\w+)\\s*(=|<=|>=|<|>)\\s*(" + LITERAL + ")$");
+    private static final Pattern BETWEEN =
+            Pattern.compile("^(\\w+)\\s+(?i:BETWEEN)\\s+(" + LITERAL + ")\\s+(?i:AND)\\s+(" + LITERAL + ")$");
+
+    private final String column;
+    private final Object low;
+    private final boolean lowInclusive;
+    private final Object high;
+    private final boolean highInclusive;
+
+    QueryCondition(String column, Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        this.column = column;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+    }
+
+    static QueryCondition equalTo(String column, Object value) {
+        return new QueryCondition(column, value, true, value, true);
+    }
+
+    static QueryCondition parse(String where) {
+        String text = where.trim();
+        Matcher between = BETWEEN.matcher(text);
+        if (between.matches()) {
+            return new QueryCondition(between.group(1), Values.parseLiteral(between.group(2)), true,
+                    Values.parseLiteral(between.group(3)), true);
+        }
+        Matcher comparison = COMPARISON.matcher(text);
+        if (!comparison.matches()) {
+            throw new IllegalArgumentException("Unsupported condition: " + where);
+        }
+        String column = comparison.group(1);
+        Object value = Values.parseLiteral(comparison.group(3));
+        switch (comparison.group(2)) {
+            case "=":
+                return equalTo(column, value);
+            case "<":
+                return new QueryCondition(column, null, false, value, false);
+            case "<=":
+                return new QueryCondition(column, null, false, value, true);
+            case ">":
+                return new QueryCondition(column, value, false, null, false);
+            default:
+                return new QueryCondition(column, value, true, null, false);
+        }
+    }
+
+    boolean matches(Object value) {
+        if (value == null) {
+            return false;
+        }
+        Object normalized = Values.normalize(value);
+        if (low != null) {
+            int compared = Values.compare(normalized, low);
+            if (compared < 0 || (compared == 0 && !lowInclusive)) {
+                return false;
+            }
+        }
+        if (high != null) {
+            int compared = Values.compare(normalized, high);
+            return compared < 0 || (compared == 0 && highInclusive);
+        }
+        return true;
+    }
+
+    boolean isEquality() {
+        return low != null && low == high;
+    }
+
+    String getColumn() {
+        return column;
+    }
+
+    Object getLow() {
+        return low;
+    }
+
+    boolean isLowInclusive() {
+        return lowInclusive;
+    }
+
+    Object getHigh() {
+        return high;
+    }
+
+    boolean isHighInclusive() {
+        return highInclusive;
+    }
+}
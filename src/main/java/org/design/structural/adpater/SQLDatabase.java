@@ -1,17 +1,280 @@
 package org.design.structural.adpater;
 
-// Adaptee (SQLDatabase)
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Adaptee (SQLDatabase), an in-memory table.
+ * Rows are column maps keyed by their "id" column in a hash primary index, and createIndex adds
+ * an ordered secondary index on a column, which serves equality and range conditions.
+ * Understands SELECT * FROM table and DELETE FROM table, each with an optional WHERE holding a
+ * single condition: column = v, &lt;, &lt;=, &gt;, &gt;= or BETWEEN a AND b.
+ * Readers share a read lock, writers take the write lock.
+ */
 public class SQLDatabase {
+
+    public static final String ID = "id";
+
+    private static final Pattern SELECT =
+            Pattern.compile("^\\s*(?i:SELECT)\\s+\\*\\s+(?i:FROM)\\s+(\\w+)(?:\\s+(?i:WHERE)\\s+(.+?))?\\s*;?\\s*$");
+    private static final Pattern DELETE =
+            Pattern.compile("^\\s*(?i:DELETE)\\s+(?i:FROM)\\s+(\\w+)(?:\\s+(?i:WHERE)\\s+(.+?))?\\s*;?\\s*$");
+
+    private final String table;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Keyed by Values.key of the id
+    private final Map<Object, Map<String, Object>> rows = new HashMap<>();
+    // Column value to the ids of the rows holding it
+    private final Map<String, NavigableMap<Object, Set<Object>>> indexes = new HashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public SQLDatabase() {
+        this("users");
+    }
+
+    public SQLDatabase(String table) {
+        this.table = table;
+    }
+
+    /**
+     * Inserts a row, or replaces the row with the same id. A map is taken as the row's columns
+     * and gets a generated id if it has none, any other object is stored in a "value" column.
+     * Generated ids are never below an explicit whole number id inserted before, so they never replace it.
+     */
     public void insertSQL(Object data) {
-        System.out.println("Saving data in SQL Database.");
+        Map<String, Object> row = toRow(data);
+        lock.writeLock().lock();
+        try {
+            put(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
+    /**
+     * Returns the matching rows as a List of unmodifiable column maps.
+     */
     public Object querySQL(String query) {
-        System.out.println("Fetching data from SQL Database.");
-        return new Object();
+        QueryCondition condition = parse(SELECT, query);
+        lock.readLock().lock();
+        try {
+            return select(condition);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public void deleteSQL(String query) {
-        System.out.println("Deleting data from SQL Database.");
+        QueryCondition condition = parse(DELETE, query);
+        lock.writeLock().lock();
+        try {
+            delete(condition);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void insertSQLBatch(List<?> rows) {
+        List<Map<String, Object>> converted = new ArrayList<>(rows.size());
+        for (Object data : rows) {
+            converted.add(toRow(data));
+        }
+        lock.writeLock().lock();
+        try {
+            for (Map<String, Object> row : converted) {
+                put(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Object> querySQLBatch(List<String> queries) {
+        List<QueryCondition> conditions = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            conditions.add(parse(SELECT, query));
+        }
+        List<Object> results = new ArrayList<>(queries.size());
+        lock.readLock().lock();
+        try {
+            for (QueryCondition condition : conditions) {
+                results.add(select(condition));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    public void deleteSQLBatch(List<String> queries) {
+        List<QueryCondition> conditions = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            conditions.add(parse(DELETE, query));
+        }
+        lock.writeLock().lock();
+        try {
+            for (QueryCondition condition : conditions) {
+                delete(condition);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an ordered secondary index on the column, built from the rows already stored.
+     */
+    public void createIndex(String column) {
+        if (ID.equals(column)) {
+            throw new IllegalArgumentException("The id column is already indexed");
+        }
+        lock.writeLock().lock();
+        try {
+            if (indexes.containsKey(column)) {
+                return;
+            }
+            NavigableMap<Object, Set<Object>> index = new TreeMap<>(Values.ORDER);
+            indexes.put(column, index);
+            for (Map<String, Object> row : rows.values()) {
+                addToIndex(index, row.get(column), Values.key(row.get(ID)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private QueryCondition parse(Pattern statement, String query) {
+        Matcher matcher = statement.matcher(query);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported query: " + query);
+        }
+        if (!matcher.group(1).equalsIgnoreCase(table)) {
+            throw new IllegalArgumentException("Unknown table: " + matcher.group(1));
+        }
+        return matcher.group(2) == null ? null : QueryCondition.parse(matcher.group(2));
+    }
+
+    private Map<String, Object> toRow(Object data) {
+        Map<String, Object> row = new HashMap<>();
+        if (data instanceof Map) {
+            for (Map.Entry<?, ?> column : ((Map<?, ?>) data).entrySet()) {
+                row.put(String.valueOf(column.getKey()), Values.normalize(column.getValue()));
+            }
+        } else {
+            row.put("value", data);
+        }
+        if (row.get(ID) == null) {
+            row.put(ID, nextId.getAndIncrement());
+        } else {
+            Values.reserveId(nextId, row.get(ID));
+        }
+        return Collections.unmodifiableMap(row);
+    }
+
+    private void put(Map<String, Object> row) {
+        Object id = Values.key(row.get(ID));
+        Map<String, Object> old = rows.put(id, row);
+        for (Map.Entry<String, NavigableMap<Object, Set<Object>>> index : indexes.entrySet()) {
+            if (old != null) {
+                removeFromIndex(index.getValue(), old.get(index.getKey()), id);
+            }
+            addToIndex(index.getValue(), row.get(index.getKey()), id);
+        }
+    }
+
+    private List<Map<String, Object>> select(QueryCondition condition) {
+        if (condition == null) {
+            return new ArrayList<>(rows.values());
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (ID.equals(condition.getColumn()) && condition.isEquality()) {
+            Map<String, Object> row = rows.get(Values.key(condition.getLow()));
+            if (row != null) {
+                result.add(row);
+            }
+            return result;
+        }
+        NavigableMap<Object, Set<Object>> index = indexes.get(condition.getColumn());
+        if (index != null) {
+            for (Set<Object> ids : range(index, condition).values()) {
+                for (Object id : ids) {
+                    result.add(rows.get(id));
+                }
+            }
+            return result;
+        }
+        for (Map<String, Object> row : rows.values()) {
+            if (condition.matches(row.get(condition.getColumn()))) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private void delete(QueryCondition condition) {
+        if (condition == null) {
+            rows.clear();
+            for (NavigableMap<Object, Set<Object>> index : indexes.values()) {
+                index.clear();
+            }
+            return;
+        }
+        for (Map<String, Object> row : select(condition)) {
+            Object id = Values.key(row.get(ID));
+            rows.remove(id);
+            for (Map.Entry<String, NavigableMap<Object, Set<Object>>> index : indexes.entrySet()) {
+                removeFromIndex(index.getValue(), row.get(index.getKey()), id);
+            }
+        }
+    }
+
+    private static NavigableMap<Object, Set<Object>> range(NavigableMap<Object, Set<Object>> index,
+                                                           QueryCondition condition) {
+        NavigableMap<Object, Set<Object>> range = index;
+        if (condition.getLow() != null) {
+            range = range.tailMap(condition.getLow(), condition.isLowInclusive());
+        }
+        if (condition.getHigh() != null) {
+            range = range.headMap(condition.getHigh(), condition.isHighInclusive());
+        }
+        return range;
+    }
+
+    // Null values are not indexed, a condition never matches them
+    private static void addToIndex(NavigableMap<Object, Set<Object>> index, Object value, Object id) {
+        if (value != null) {
+            index.computeIfAbsent(value, v -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removeFromIndex(NavigableMap<Object, Set<Object>> index, Object value, Object id) {
+        if (value == null) {
+            return;
+        }
+        Set<Object> ids = index.get(value);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(value);
+        }
     }
 }
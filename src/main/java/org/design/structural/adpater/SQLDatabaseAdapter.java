@@ -1,5 +1,7 @@
 package org.design.structural.adpater;
 
+import java.util.List;
+
 public class SQLDatabaseAdapter implements Database{
 
     private SQLDatabase sqlDatabase;
@@ -21,4 +23,19 @@ public class SQLDatabaseAdapter implements Database{
     public void delete(String query) {
         sqlDatabase.deleteSQL(query);
     }
+
+    @Override
+    public void saveAll(List<?> data) {
+        sqlDatabase.insertSQLBatch(data);
+    }
+
+    @Override
+    public List<Object> fetchAll(List<String> queries) {
+        return sqlDatabase.querySQLBatch(queries);
+    }
+
+    @Override
+    public void deleteAll(List<String> queries) {
+        sqlDatabase.deleteSQLBatch(queries);
+    }
 }
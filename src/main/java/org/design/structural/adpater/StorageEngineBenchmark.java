@@ -0,0 +1,116 @@
+package org.design.structural.adpater;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads millions of rows into SQLDatabase and NoSQLDatabase, then times point lookups,
+ * range queries on the ordered secondary index, field index lookups, and point lookups
+ * from several reader threads while one thread keeps writing.
+ * Usage: StorageEngineBenchmark [records] [readers]
+ */
+public class StorageEngineBenchmark {
+
+    private static final int BATCH = 10_000;
+    private static final int QUERIES = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        SQLDatabase sql = new SQLDatabase();
+        sql.createIndex("age");
+        long start = System.nanoTime();
+        for (int from = 0; from < records; from += BATCH) {
+            sql.insertSQLBatch(rows(from, Math.min(from + BATCH, records), "id"));
+        }
+        report("SQL inserted", records, System.nanoTime() - start);
+
+        SplittableRandom random = new SplittableRandom(42);
+        start = System.nanoTime();
+        long found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            found += ((List<?>) sql.querySQL("SELECT * FROM users WHERE id = " + random.nextInt(records))).size();
+        }
+        report("SQL point lookups", QUERIES, System.nanoTime() - start);
+
+        int ranges = QUERIES / 100;
+        start = System.nanoTime();
+        for (int i = 0; i < ranges; i++) {
+            int age = 18 + random.nextInt(60);
+            found += ((List<?>) sql.querySQL("SELECT * FROM users WHERE age BETWEEN " + age + " AND " + age)).size();
+        }
+        report("SQL range queries", ranges, System.nanoTime() - start);
+
+        NoSQLDatabase noSQL = new NoSQLDatabase();
+        noSQL.createIndex("city");
+        start = System.nanoTime();
+        for (int from = 0; from < records; from += BATCH) {
+            noSQL.insertDocuments(rows(from, Math.min(from + BATCH, records), "_id"));
+        }
+        report("NoSQL inserted", records, System.nanoTime() - start);
+
+        int cities = QUERIES / 100;
+        start = System.nanoTime();
+        for (int i = 0; i < cities; i++) {
+            found += ((List<?>) noSQL.findDocument("{city: 'city-" + random.nextInt(1_000) + "', age: 30}")).size();
+        }
+        report("NoSQL field index queries", cities, System.nanoTime() - start);
+
+        // Readers share the read lock, a single writer keeps replacing rows
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+        Future<?> writer = pool.submit(() -> {
+            SplittableRandom writes = new SplittableRandom(7);
+            for (int i = 0; i < QUERIES / 10; i++) {
+                sql.insertSQL(row(writes.nextInt(records), writes, "id"));
+            }
+        });
+        List<Future<Long>> lookups = new ArrayList<>();
+        start = System.nanoTime();
+        for (int r = 0; r < readers; r++) {
+            long seed = r;
+            lookups.add(pool.submit(() -> {
+                SplittableRandom reads = new SplittableRandom(seed);
+                long hits = 0;
+                for (int i = 0; i < QUERIES; i++) {
+                    hits += ((List<?>) sql.querySQL("SELECT * FROM users WHERE id = " + reads.nextInt(records))).size();
+                }
+                return hits;
+            }));
+        }
+        for (Future<Long> lookup : lookups) {
+            found += lookup.get();
+        }
+        report("SQL concurrent point lookups", (long) readers * QUERIES, System.nanoTime() - start);
+        writer.get();
+        pool.shutdown();
+        System.out.printf("%,d rows matched in total%n", found);
+    }
+
+    private static List<Map<String, Object>> rows(int from, int to, String idColumn) {
+        SplittableRandom random = new SplittableRandom(from);
+        List<Map<String, Object>> rows = new ArrayList<>(to - from);
+        for (int id = from; id < to; id++) {
+            rows.add(row(id, random, idColumn));
+        }
+        return rows;
+    }
+
+    private static Map<String, Object> row(int id, SplittableRandom random, String idColumn) {
+        Map<String, Object> row = new HashMap<>();
+        row.put(idColumn, id);
+        row.put("age", 18 + random.nextInt(60));
+        row.put("city", "city-" + random.nextInt(1_000));
+        return row;
+    }
+
+    private static void report(String action, long operations, long nanos) {
+        System.out.printf("%s %,d: %.0f ns each%n", action, operations, (double) nanos / operations);
+    }
+}
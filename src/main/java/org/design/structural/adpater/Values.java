@@ -0,0 +1,105 @@
+package org.design.structural.adpater;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Value handling shared by the in-memory engines: numbers are normalized to Long or Double,
+ * so 1 and 1L are the same key, and one total order is defined over the supported types.
+ * Both engines look ids, index keys and query values up by key, so they agree on which values are equal.
+ */
+final class Values {
+
+    // Numbers, then strings, then booleans, then anything else by its string form
+    static final Comparator<Object> ORDER = Values::compare;
+
+    private Values() {
+    }
+
+    static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        return value;
+    }
+
+    /**
+     * Hash key for a value: as normalize, and a double holding a whole number becomes that Long,
+     * so 30 and 30.0 are the same key, as they compare equal.
+     */
+    static Object key(Object value) {
+        Object normalized = normalize(value);
+        if (normalized instanceof Double) {
+            double number = (Double) normalized;
+            if (number == Math.rint(number) && Math.abs(number) < 0x1p63) {
+                return (long) number;
+            }
+        }
+        return normalized;
+    }
+
+    // Moves a generator past an explicit whole number id, so a later generated id never takes its place
+    static void reserveId(AtomicLong nextId, Object id) {
+        Object key = key(id);
+        if (key instanceof Long && (Long) key < Long.MAX_VALUE) {
+            nextId.accumulateAndGet((Long) key + 1, Math::max);
+        }
+    }
+
+    static int compare(Object left, Object right) {
+        int rank = Integer.compare(rank(left), rank(right));
+        if (rank != 0) {
+            return rank;
+        }
+        if (left instanceof Long && right instanceof Long) {
+            return Long.compare((Long) left, (Long) right);
+        }
+        if (left instanceof Number) {
+            return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        }
+        if (left instanceof String) {
+            return ((String) left).compareTo((String) right);
+        }
+        if (left instanceof Boolean) {
+            return Boolean.compare((Boolean) left, (Boolean) right);
+        }
+        return String.valueOf(left).compareTo(String.valueOf(right));
+    }
+
+    /**
+     * Parses a query literal: 'text' with '' for a quote, an integer, a decimal, true or false.
+     */
+    static Object parseLiteral(String literal) {
+        String text = literal.trim();
+        if (text.length() >= 2 && text.startsWith("'") && text.endsWith("'")) {
+            return text.substring(1, text.length() - 1).replace("''", "'");
+        }
+        if (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false")) {
+            return Boolean.valueOf(text);
+        }
+        try {
+            if (text.contains(".")) {
+                return Double.valueOf(text);
+            }
+            return Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid literal: " + literal);
+        }
+    }
+
+    private static int rank(Object value) {
+        if (value instanceof Number) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 1;
+        }
+        if (value instanceof Boolean) {
+            return 2;
+        }
+        return 3;
+    }
+}
@@ -0,0 +1,84 @@
+package org.design.structural.adpater;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Several producers save bursts of rows into SQLDatabase three ways: straight into the table without a log,
+ * through a WriteBehindDatabase that commits every save on its own (the caller flushes after each save),
+ * and through a WriteBehindDatabase that group commits, until every row is durable and in the table.
+ * Usage: WriteBehindBenchmark [rows] [producers] [batchSize]
+ */
+public class WriteBehindBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        SQLDatabase direct = new SQLDatabase();
+        long nanos = run(new SQLDatabaseAdapter(direct), rows, producers);
+        System.out.printf("Without a log:      %,d rows in %d ms, %.0f ns per row%n",
+                direct.size(), nanos / 1_000_000, (double) nanos / rows);
+
+        logged("Commit per save:   ", rows / 20, producers, 1, true);
+        logged("Group commit:      ", rows, producers, batchSize, false);
+    }
+
+    private static void logged(String name, int rows, int producers, int batchSize, boolean flushEach)
+            throws Exception {
+        SQLDatabase table = new SQLDatabase();
+        Path log = Files.createTempFile("write-behind", ".log");
+        try (WriteBehindDatabase writeBehind = new WriteBehindDatabase.Builder(new SQLDatabaseAdapter(table), log)
+                .maxBatchSize(batchSize)
+                .maxDelay(2, TimeUnit.MILLISECONDS)
+                .build()) {
+            long nanos = run(writeBehind, rows, producers, flushEach);
+            writeBehind.flush();
+            System.out.printf("%s %,d rows in %d ms, %.0f ns per row, %,d batches%n", name,
+                    table.size(), nanos / 1_000_000, (double) nanos / rows, writeBehind.getBatchCount());
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static long run(Database database, int rows, int producers) throws Exception {
+        return run(database, rows, producers, false);
+    }
+
+    private static long run(Database database, int rows, int producers, boolean flushEach) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        int perProducer = rows / producers;
+        long start = System.nanoTime();
+        Future<?>[] done = new Future<?>[producers];
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            done[p] = pool.submit(() -> {
+                for (int id = first; id < first + perProducer; id++) {
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("id", id);
+                    row.put("name", "user-" + id);
+                    database.save(row);
+                    if (flushEach) {
+                        ((WriteBehindDatabase) database).flush();
+                    }
+                }
+            });
+        }
+        for (Future<?> producer : done) {
+            producer.get();
+        }
+        if (database instanceof WriteBehindDatabase) {
+            ((WriteBehindDatabase) database).flush();
+        }
+        long nanos = System.nanoTime() - start;
+        pool.shutdown();
+        return nanos;
+    }
+}
@@ -0,0 +1,485 @@
+package org.design.structural.adpater;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind mode for any Database. save only serializes the data and puts it on a lock-free queue,
+ * a single flusher thread takes the queued saves in batches, appends them to a memory-mapped log
+ * with one force per batch (group commit), then hands the batch to the delegate's saveAll.
+ * A batch is committed once it holds maxBatchSize saves or its oldest save waited maxDelay,
+ * which bounds how many acknowledged saves a crash can lose.
+ * <p>
+ * The log only holds saves the delegate has not applied yet: it is cleared after every applied batch,
+ * and whatever it still holds when the database is opened is replayed into the delegate first.
+ * A crash between saveAll and clearing the log replays that batch again, so saves are applied at least once.
+ * If saveAll keeps failing after maxRetries, the database fails: the batch and everything queued behind it
+ * stay in the log for the next replay, and later saves, flushes and deletes throw.
+ * <p>
+ * Reads go straight to the delegate and may miss queued saves, call flush first to read your writes.
+ * Deletes flush first, so they never overtake an earlier save.
+ * Log records are a length (int) followed by the Java serialized data, a length of 0 ends the log
+ * and a length of -1 skips to the next chunk.
+ */
+public class WriteBehindDatabase implements Database, AutoCloseable {
+
+    private static final long CHUNK_SIZE = 64L * 1024 * 1024;
+    private static final int END_OF_LOG = 0;
+    private static final int SKIP_TO_NEXT_CHUNK = -1;
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Database delegate;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final int maxRetries;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger barriers = new AtomicInteger();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final long replayed;
+    private final Thread flusher;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+    // Completes once close has committed everything queued before it
+    private final CompletableFuture<Void> terminated = new CompletableFuture<>();
+
+    // Only touched by the flusher thread once it runs, and by close once the flusher stopped
+    private final FileChannel log;
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+
+    private WriteBehindDatabase(Builder builder) throws IOException {
+        this.delegate = builder.delegate;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelayNanos = builder.maxDelayNanos;
+        this.maxRetries = builder.maxRetries;
+        this.log = FileChannel.open(builder.logFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.replayed = replay();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        this.flusher = new Thread(this::runFlusher, "write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues the data, which must be Serializable, and returns without waiting for it to be written.
+     */
+    @Override
+    public void save(Object data) {
+        checkFailure();
+        enqueue(new Pending(data, serialize(data)));
+    }
+
+    @Override
+    public void saveAll(List<?> data) {
+        for (Object item : data) {
+            save(item);
+        }
+    }
+
+    @Override
+    public Object fetch(String query) {
+        return delegate.fetch(query);
+    }
+
+    @Override
+    public List<Object> fetchAll(List<String> queries) {
+        return delegate.fetchAll(queries);
+    }
+
+    @Override
+    public void delete(String query) {
+        flush();
+        delegate.delete(query);
+    }
+
+    @Override
+    public void deleteAll(List<String> queries) {
+        flush();
+        delegate.deleteAll(queries);
+    }
+
+    /**
+     * Waits until every save queued before this call is in the log and in the delegate.
+     */
+    public void flush() {
+        flushAsync().join();
+    }
+
+    public CompletableFuture<Void> flushAsync() {
+        RuntimeException failed = failure;
+        if (failed != null) {
+            return CompletableFuture.failedFuture(failed);
+        }
+        if (closed) {
+            return terminated;
+        }
+        Pending barrier = new Pending(new CompletableFuture<>());
+        barriers.incrementAndGet();
+        queue.offer(barrier);
+        LockSupport.unpark(flusher);
+        // Closed meanwhile and nobody took the barrier, close commits everything before it
+        if (closed && queue.remove(barrier)) {
+            barriers.decrementAndGet();
+            return terminated;
+        }
+        return barrier.barrier;
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getFlushedCount() {
+        return flushed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    // Saves found in the log when the database was opened and applied to the delegate
+    public long getReplayedCount() {
+        return replayed;
+    }
+
+    /**
+     * Commits everything still queued and closes the log, saves after close are rejected.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(flusher);
+        boolean interrupted = false;
+        while (flusher.isAlive()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        try {
+            // Saves and barriers that raced with close are still committed, the flusher is gone
+            drain(new ArrayList<>(), new ArrayList<>());
+            log.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            RuntimeException failed = failure;
+            if (failed == null) {
+                terminated.complete(null);
+            } else {
+                terminated.completeExceptionally(failed);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void enqueue(Pending save) {
+        if (closed) {
+            throw new IllegalStateException("Write-behind database is closed");
+        }
+        queue.offer(save);
+        // Wake the flusher to start the delay of a new batch, or because a batch is full
+        int count = pending.incrementAndGet();
+        if (count == 1 || count == maxBatchSize) {
+            LockSupport.unpark(flusher);
+        }
+        // Closed meanwhile and nobody took the save, it would never be written
+        if (closed && queue.remove(save)) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("Write-behind database is closed");
+        }
+    }
+
+    private void checkFailure() {
+        RuntimeException failed = failure;
+        if (failed != null) {
+            throw new IllegalStateException("Write-behind database failed, unapplied saves stay in the log", failed);
+        }
+    }
+
+    private static byte[] serialize(Object data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(data);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("Data must be Serializable: " + e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (bytes.size() > CHUNK_SIZE - 2 * Integer.BYTES) {
+            throw new IllegalArgumentException("Data is too large for the log: " + bytes.size() + " bytes");
+        }
+        return bytes.toByteArray();
+    }
+
+    private void runFlusher() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        List<Pending> reached = new ArrayList<>();
+        while (true) {
+            if (queue.isEmpty()) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.park(this);
+                continue;
+            }
+            // Something is queued, wait for a full batch, a barrier or the end of the delay
+            long deadline = System.nanoTime() + maxDelayNanos;
+            long remaining;
+            while (pending.get() < maxBatchSize && barriers.get() == 0 && !closed
+                    && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            drain(batch, reached);
+        }
+    }
+
+    private void drain(List<Pending> batch, List<Pending> reached) {
+        Pending next;
+        while ((next = queue.poll()) != null) {
+            if (next.barrier != null) {
+                barriers.decrementAndGet();
+                reached.add(next);
+            } else {
+                batch.add(next);
+            }
+            if (batch.size() == maxBatchSize || (next.barrier != null && !batch.isEmpty())) {
+                commit(batch, reached);
+            }
+        }
+        commit(batch, reached);
+    }
+
+    private void commit(List<Pending> batch, List<Pending> reached) {
+        if (!batch.isEmpty()) {
+            try {
+                List<Object> data = new ArrayList<>(batch.size());
+                for (Pending save : batch) {
+                    append(save.bytes);
+                    data.add(save.data);
+                }
+                chunk.force();
+                // Once failed, saves are only logged, the next replay applies them in order
+                if (failure == null) {
+                    apply(data);
+                }
+            } catch (IOException e) {
+                fail(new UncheckedIOException(e));
+            }
+            pending.addAndGet(-batch.size());
+            batch.clear();
+        }
+        // Barriers behind a failed batch fail too, their callers would otherwise miss writes
+        RuntimeException failed = failure;
+        for (Pending barrier : reached) {
+            if (failed == null) {
+                barrier.barrier.complete(null);
+            } else {
+                barrier.barrier.completeExceptionally(failed);
+            }
+        }
+        reached.clear();
+    }
+
+    // Hands the batch to the delegate, retrying with a growing delay, and clears the log once it is applied
+    private void apply(List<Object> data) throws IOException {
+        RuntimeException last = null;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                LockSupport.parkNanos(this, Math.min(MAX_RETRY_DELAY_NANOS,
+                        TimeUnit.MILLISECONDS.toNanos(10) << (attempt - 1)));
+            }
+            try {
+                delegate.saveAll(data);
+                flushed.addAndGet(data.size());
+                batches.incrementAndGet();
+                clearLog();
+                return;
+            } catch (RuntimeException e) {
+                last = e;
+            }
+        }
+        fail(new IllegalStateException("Delegate rejected a batch of " + data.size() + " saves "
+                + (maxRetries + 1) + " times", last));
+    }
+
+    private void fail(RuntimeException cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        // Leave room for the end of log marker behind the record
+        if (chunk.remaining() < 2 * Integer.BYTES + bytes.length) {
+            MappedByteBuffer full = chunk;
+            mapChunk(chunkStart + CHUNK_SIZE);
+            // The new chunk may hold records of an earlier, cleared log, end it before pointing at it
+            chunk.putInt(0, END_OF_LOG);
+            full.putInt(full.position(), SKIP_TO_NEXT_CHUNK);
+            full.force();
+        }
+        // The data and the end marker behind it go in before the length, a record with a length is complete
+        int position = chunk.position();
+        chunk.position(position + Integer.BYTES);
+        chunk.put(bytes);
+        chunk.putInt(chunk.position(), END_OF_LOG);
+        chunk.putInt(position, bytes.length);
+    }
+
+    // Every logged save is applied, start the log over from the beginning
+    private void clearLog() throws IOException {
+        if (chunkStart != 0) {
+            mapChunk(0);
+        }
+        chunk.putInt(0, END_OF_LOG);
+        chunk.position(0);
+        chunk.force();
+    }
+
+    // Applies the saves left in the log by an earlier run, in batches, then clears the log
+    private long replay() throws IOException {
+        mapChunk(0);
+        List<Object> data = new ArrayList<>(maxBatchSize);
+        long count = 0;
+        while (true) {
+            int length = chunk.remaining() >= Integer.BYTES ? chunk.getInt(chunk.position()) : SKIP_TO_NEXT_CHUNK;
+            if (length == SKIP_TO_NEXT_CHUNK) {
+                mapChunk(chunkStart + CHUNK_SIZE);
+                continue;
+            }
+            // A record cut short by a crash was never forced, so it was never durable either
+            if (length <= END_OF_LOG || length > chunk.remaining() - Integer.BYTES) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            chunk.position(chunk.position() + Integer.BYTES);
+            chunk.get(bytes);
+            Object save = deserialize(bytes);
+            if (save == null) {
+                break;
+            }
+            data.add(save);
+            if (data.size() == maxBatchSize) {
+                delegate.saveAll(data);
+                count += data.size();
+                data.clear();
+            }
+        }
+        if (!data.isEmpty()) {
+            delegate.saveAll(data);
+            count += data.size();
+        }
+        clearLog();
+        return count;
+    }
+
+    // Null for bytes that are not a complete serialized object
+    private static Object deserialize(byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Log holds a save of an unknown class", e);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void mapChunk(long start) throws IOException {
+        chunk = log.map(FileChannel.MapMode.READ_WRITE, start, CHUNK_SIZE);
+        chunkStart = start;
+    }
+
+    private static final class Pending {
+        private final Object data;
+        private final byte[] bytes;
+        private final CompletableFuture<Void> barrier;
+
+        Pending(Object data, byte[] bytes) {
+            this.data = data;
+            this.bytes = bytes;
+            this.barrier = null;
+        }
+
+        Pending(CompletableFuture<Void> barrier) {
+            this.data = null;
+            this.bytes = null;
+            this.barrier = barrier;
+        }
+    }
+
+    public static class Builder {
+        private final Database delegate;
+        private final Path logFile;
+        private int maxBatchSize = 1_000;
+        private long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(10);
+        private int maxRetries = 3;
+
+        public Builder(Database delegate, Path logFile) {
+            this.delegate = delegate;
+            this.logFile = logFile;
+        }
+
+        // Commit a batch once it holds this many saves
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        // Commit a batch once its oldest save waited this long
+        public Builder maxDelay(long delay, TimeUnit unit) {
+            if (delay < 0) {
+                throw new IllegalArgumentException("Delay must not be negative");
+            }
+            this.maxDelayNanos = unit.toNanos(delay);
+            return this;
+        }
+
+        // Times a batch is handed to the delegate again after saveAll threw, before the database fails
+        public Builder maxRetries(int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Retries must not be negative");
+            }
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public WriteBehindDatabase build() throws IOException {
+            return new WriteBehindDatabase(this);
+        }
+    }
+}
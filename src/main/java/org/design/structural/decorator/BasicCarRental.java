@@ -1,13 +1,37 @@
 package org.design.structural.decorator;
 
 public class BasicCarRental implements CarRental {
+    // Null for the fixed RateTable.DEFAULT prices
+    private final RateBoard rates;
+
+    public BasicCarRental() {
+        this.rates = null;
+    }
+
+    // Prices with the current rates of the board
+    public BasicCarRental(RateBoard rates) {
+        if (rates == null) {
+            throw new IllegalArgumentException("Rate board must not be null");
+        }
+        this.rates = rates;
+    }
+
     @Override
     public double getCost() {
-        return 50.0;
+        return getCost(RateBoard.currentOf(rates));
+    }
+
+    @Override
+    public double getCost(RateTable rates) {
+        return rates.getBaseRate();
     }
 
     @Override
     public String getDescription() {
         return "Basic Car Rental";
     }
+
+    RateBoard getRateBoard() {
+        return rates;
+    }
 }
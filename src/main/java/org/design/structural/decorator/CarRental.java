@@ -2,5 +2,14 @@ package org.design.structural.decorator;
 
 public interface CarRental {
     double getCost();
+
+    /**
+     * Cost with the given rates throughout, so a quote pinned to one RateTable version stays consistent.
+     * Rentals whose prices do not come from a rate table ignore it.
+     */
+    default double getCost(RateTable rates) {
+        return getCost();
+    }
+
     String getDescription();
 }
@@ -1,10 +1,13 @@
 package org.design.structural.decorator;
 
 public abstract class CarRentalDecorator implements CarRental{
-    protected CarRental decoratedCarRental;
+    protected final CarRental decoratedCarRental;
+    // The board of the rental underneath, so the whole stack prices with one table
+    private final RateBoard rates;
 
     public CarRentalDecorator(CarRental decoratedCarRental) {
         this.decoratedCarRental = decoratedCarRental;
+        this.rates = rateBoardOf(decoratedCarRental);
     }
 
     @Override
@@ -12,8 +15,25 @@ public abstract class CarRentalDecorator implements CarRental{
         return decoratedCarRental.getDescription();
     }
 
+    // Reads the current table once, the stack below is priced with that table
     @Override
     public double getCost() {
-        return decoratedCarRental.getCost();
+        return getCost(RateBoard.currentOf(rates));
+    }
+
+    @Override
+    public double getCost(RateTable rates) {
+        return decoratedCarRental.getCost(rates);
+    }
+
+    // Null when the rental prices with RateTable.DEFAULT or is not a stack built on BasicCarRental
+    static RateBoard rateBoardOf(CarRental rental) {
+        if (rental instanceof CarRentalDecorator) {
+            return ((CarRentalDecorator) rental).rates;
+        }
+        if (rental instanceof BasicCarRental) {
+            return ((BasicCarRental) rental).getRateBoard();
+        }
+        return null;
     }
 }
@@ -3,7 +3,9 @@ package org.design.structural.decorator;
 public class CarRentalDemo {
 
     public static void main(String[] args) {
-        CarRental basicCarRental = new BasicCarRental();
+        // The fleet's live prices, owned here and passed to everything that quotes with them
+        RateBoard rates = new RateBoard();
+        CarRental basicCarRental = new BasicCarRental(rates);
 
         // Add GPS and Insurance to the basic car rental
         CarRental rentalWithGPSAndInsurance = new InsuranceDecorator(new GPSDecorator(basicCarRental));
@@ -16,5 +18,32 @@ public class CarRentalDemo {
 
         System.out.println("Description: " + fullFeatureRental.getDescription());
         System.out.println("Cost: $" + fullFeatureRental.getCost());
+
+        // Flatten the stack once for repeated quotes
+        CarRental compiledRental = CompiledCarRental.compile(fullFeatureRental);
+
+        System.out.println("Description: " + compiledRental.getDescription());
+        System.out.println("Cost: $" + compiledRental.getCost());
+
+        // Price option sets without building a stack per booking
+        FleetPricingEngine pricingEngine = new FleetPricingEngine(rates);
+        int gpsAndSunroof = RentalOption.mask(RentalOption.GPS, RentalOption.SUNROOF);
+
+        System.out.println("Description: " + pricingEngine.describe(gpsAndSunroof));
+        System.out.println("Cost: $" + pricingEngine.price(gpsAndSunroof));
+
+        // Equal stacks are shared
+        CarRentalInterner interner = new CarRentalInterner(rates);
+        CarRental sharedRental = interner.intern(new InsuranceDecorator(new GPSDecorator(new BasicCarRental(rates))));
+
+        System.out.println("Shared: " + (sharedRental == interner.stack(RentalOption.GPS, RentalOption.INSURANCE)));
+
+        // Publish new prices without a redeploy, a pinned rate table keeps the old ones
+        RateTable oldRates = rates.current();
+        rates.update(table -> table.withRate(RentalOption.GPS, 12.0));
+
+        System.out.println("Cost: $" + compiledRental.getCost() + " (was $" + compiledRental.getCost(oldRates) + ")");
+        System.out.println("Cost: $" + pricingEngine.price(gpsAndSunroof) + " (was $"
+                + pricingEngine.price(gpsAndSunroof, oldRates) + ")");
     }
 }
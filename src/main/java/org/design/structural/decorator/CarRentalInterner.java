@@ -0,0 +1,188 @@
+package org.design.structural.decorator;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonicalizing factory for CarRental stacks built from BasicCarRental and the RentalOption decorators.
+ * Equal stacks, the same options in the same order on the interner's RateBoard, are shared as one instance,
+ * and so are their inner stacks.
+ * Decorators are immutable, so sharing is safe. The cache holds the stacks weakly, a stack no booking
+ * uses any more is collected and its entry is removed on a later call.
+ */
+public class CarRentalInterner {
+
+    private static final RentalOption[] OPTIONS = RentalOption.values();
+    private static final Map<Class<?>, RentalOption> OPTION_BY_CLASS = new HashMap<>();
+
+    static {
+        for (RentalOption option : OPTIONS) {
+            OPTION_BY_CLASS.put(option.decorate(new BasicCarRental()).getClass(), option);
+        }
+    }
+
+    // Null for stacks with the fixed RateTable.DEFAULT prices
+    private final RateBoard rates;
+    private final Map<Key, StackReference> cache = new ConcurrentHashMap<>();
+    private final ReferenceQueue<CarRental> collected = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Rental objects the callers asked for, and the ones actually created
+    private final LongAdder requestedLayers = new LongAdder();
+    private final LongAdder createdLayers = new LongAdder();
+
+    public CarRentalInterner() {
+        this.rates = null;
+    }
+
+    // Shares stacks that price with the board
+    public CarRentalInterner(RateBoard rates) {
+        if (rates == null) {
+            throw new IllegalArgumentException("Rate board must not be null");
+        }
+        this.rates = rates;
+    }
+
+    /**
+     * Returns the shared stack with the options applied in the given order.
+     */
+    public CarRental stack(RentalOption... options) {
+        byte[] ordinals = new byte[options.length];
+        for (int i = 0; i < options.length; i++) {
+            ordinals[i] = (byte) options[i].ordinal();
+        }
+        requestedLayers.add(ordinals.length + 1);
+        return stack(new Key(ordinals));
+    }
+
+    /**
+     * Returns the shared stack equal to the rental. Rentals with other decorators, not built on
+     * a BasicCarRental or on another RateBoard, are returned unchanged, the interner cannot tell what they are equal to.
+     */
+    public CarRental intern(CarRental rental) {
+        int depth = 0;
+        CarRental layer = rental;
+        while (layer instanceof CarRentalDecorator) {
+            if (!OPTION_BY_CLASS.containsKey(layer.getClass())) {
+                return rental;
+            }
+            layer = ((CarRentalDecorator) layer).decoratedCarRental;
+            depth++;
+        }
+        if (layer.getClass() != BasicCarRental.class || ((BasicCarRental) layer).getRateBoard() != rates) {
+            return rental;
+        }
+        // Walked from the outside in, the key lists the options from the inside out
+        byte[] ordinals = new byte[depth];
+        layer = rental;
+        for (int i = depth - 1; i >= 0; i--) {
+            ordinals[i] = (byte) OPTION_BY_CLASS.get(layer.getClass()).ordinal();
+            layer = ((CarRentalDecorator) layer).decoratedCarRental;
+        }
+        requestedLayers.add(depth + 1);
+        return stack(new Key(ordinals));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Rental objects callers did not need to keep, because an equal stack or inner stack was shared.
+     */
+    public long getSavedObjectCount() {
+        return requestedLayers.sum() - createdLayers.sum();
+    }
+
+    /**
+     * Number of stacks currently shared, inner stacks included.
+     */
+    public int size() {
+        expungeCollected();
+        return cache.size();
+    }
+
+    private CarRental stack(Key key) {
+        expungeCollected();
+        StackReference cached = cache.get(key);
+        CarRental rental = cached == null ? null : cached.get();
+        if (rental != null) {
+            hits.increment();
+            return rental;
+        }
+        misses.increment();
+        // The inner stack is interned first, so equal prefixes are shared too
+        CarRental inner = key.ordinals.length == 0 ? newBasic() : stack(key.parent());
+        CarRental created = key.ordinals.length == 0
+                ? inner : OPTIONS[key.ordinals[key.ordinals.length - 1]].decorate(inner);
+        createdLayers.increment();
+        StackReference reference = new StackReference(created, key, collected);
+        while (true) {
+            StackReference previous = cache.putIfAbsent(key, reference);
+            if (previous == null) {
+                return created;
+            }
+            CarRental winner = previous.get();
+            if (winner != null) {
+                return winner;
+            }
+            if (cache.replace(key, previous, reference)) {
+                return created;
+            }
+        }
+    }
+
+    private BasicCarRental newBasic() {
+        return rates == null ? new BasicCarRental() : new BasicCarRental(rates);
+    }
+
+    private void expungeCollected() {
+        StackReference reference;
+        while ((reference = (StackReference) collected.poll()) != null) {
+            cache.remove(reference.key, reference);
+        }
+    }
+
+    private static final class StackReference extends WeakReference<CarRental> {
+        private final Key key;
+
+        StackReference(CarRental rental, Key key, ReferenceQueue<CarRental> queue) {
+            super(rental, queue);
+            this.key = key;
+        }
+    }
+
+    // RentalOption ordinals from the innermost decorator out
+    private static final class Key {
+        private final byte[] ordinals;
+        private final int hash;
+
+        Key(byte[] ordinals) {
+            this.ordinals = ordinals;
+            this.hash = Arrays.hashCode(ordinals);
+        }
+
+        Key parent() {
+            return new Key(Arrays.copyOf(ordinals, ordinals.length - 1));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(ordinals, ((Key) other).ordinals);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.design.structural.decorator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.SplittableRandom;
+
+/**
+ * Holds a million bookings, each with its CarRental stack, once with a stack allocated per booking
+ * and once with interned stacks, and compares the heap they retain.
+ * The booking mix is skewed like real bookings: most pick no or one add-on, a few pick all three.
+ * Usage: CarRentalInternerBenchmark [bookings]
+ */
+public class CarRentalInternerBenchmark {
+
+    // Common option sets first, picked with falling probability
+    private static final RentalOption[][] MIX = {
+            {},
+            {RentalOption.INSURANCE},
+            {RentalOption.GPS},
+            {RentalOption.GPS, RentalOption.INSURANCE},
+            {RentalOption.INSURANCE, RentalOption.GPS},
+            {RentalOption.SUNROOF},
+            {RentalOption.GPS, RentalOption.INSURANCE, RentalOption.SUNROOF},
+            {RentalOption.SUNROOF, RentalOption.INSURANCE, RentalOption.GPS},
+    };
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = usedHeap();
+        CarRental[] bookings = book(count, null);
+        long perBooking = usedHeap() - baseline;
+        System.out.printf("Stack per booking: %,d KB retained%n", perBooking / 1024);
+        bookings = null;
+
+        CarRentalInterner interner = new CarRentalInterner();
+        baseline = usedHeap();
+        bookings = book(count, interner);
+        long interned = usedHeap() - baseline;
+        System.out.printf("Interned stacks:   %,d KB retained, %d shared stacks, %,d objects saved%n",
+                interned / 1024, interner.size(), interner.getSavedObjectCount());
+        System.out.printf("Saved %,d KB, %.1f bytes per booking (%d bookings kept)%n",
+                (perBooking - interned) / 1024, (double) (perBooking - interned) / count, bookings.length);
+    }
+
+    private static CarRental[] book(int count, CarRentalInterner interner) {
+        SplittableRandom random = new SplittableRandom(42);
+        CarRental[] bookings = new CarRental[count];
+        for (int i = 0; i < count; i++) {
+            // Each step down the mix is half as likely as the one before
+            int pick = Math.min(Long.numberOfTrailingZeros(random.nextLong() | Long.MIN_VALUE), MIX.length - 1);
+            RentalOption[] options = MIX[pick];
+            if (interner != null) {
+                bookings[i] = interner.stack(options);
+            } else {
+                CarRental rental = new BasicCarRental();
+                for (RentalOption option : options) {
+                    rental = option.decorate(rental);
+                }
+                bookings[i] = rental;
+            }
+        }
+        return bookings;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,62 @@
+package org.design.structural.decorator;
+
+/**
+ * A CarRental decorator stack flattened into its description and its cost under one rate table.
+ * The chain is walked once when compiling and again only when the stack's RateBoard publishes
+ * a new table, otherwise getCost and getDescription are field reads and allocate nothing.
+ */
+public final class CompiledCarRental implements CarRental {
+
+    private final CarRental source;
+    private final RateBoard board;
+    private final String description;
+    // Replaced as a whole, so the cost always belongs to the table next to it
+    private volatile Price price;
+
+    private CompiledCarRental(CarRental source) {
+        this.source = source;
+        this.board = CarRentalDecorator.rateBoardOf(source);
+        this.description = source.getDescription();
+        this.price = new Price(RateBoard.currentOf(board), source);
+    }
+
+    public static CompiledCarRental compile(CarRental rental) {
+        if (rental instanceof CompiledCarRental) {
+            return (CompiledCarRental) rental;
+        }
+        return new CompiledCarRental(rental);
+    }
+
+    @Override
+    public double getCost() {
+        RateTable rates = RateBoard.currentOf(board);
+        Price compiled = price;
+        if (compiled.rates != rates) {
+            compiled = new Price(rates, source);
+            price = compiled;
+        }
+        return compiled.cost;
+    }
+
+    // A pinned table other than the compiled one is priced through the chain
+    @Override
+    public double getCost(RateTable rates) {
+        Price compiled = price;
+        return compiled.rates == rates ? compiled.cost : source.getCost(rates);
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    private static final class Price {
+        private final RateTable rates;
+        private final double cost;
+
+        Price(RateTable rates, CarRental source) {
+            this.rates = rates;
+            this.cost = source.getCost(rates);
+        }
+    }
+}
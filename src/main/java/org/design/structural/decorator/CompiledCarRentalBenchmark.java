@@ -0,0 +1,63 @@
+package org.design.structural.decorator;
+
+import org.design.ThreadAllocations;
+
+/**
+ * Quotes decorator stacks of depth 3 to 50 through the recursive chain and through
+ * their CompiledCarRental, reporting time and bytes allocated per getCost plus getDescription.
+ */
+public class CompiledCarRentalBenchmark {
+
+    private static final int[] DEPTHS = {3, 5, 10, 20, 50};
+    private static final int QUOTES = 2_000_000;
+
+    // Every quote is added here and printed, so the JIT cannot drop the work being measured
+    private static long sink;
+
+    public static void main(String[] args) {
+        for (int depth : DEPTHS) {
+            CarRental chain = stack(depth);
+            CarRental compiled = CompiledCarRental.compile(chain);
+            for (int warmup = 0; warmup < 3; warmup++) {
+                sink += quote(chain, QUOTES / 10) + quote(compiled, QUOTES / 10);
+            }
+            System.out.printf("Depth %2d: chain %s, compiled %s%n", depth, measure(chain), measure(compiled));
+        }
+        System.out.println("(" + sink + ")");
+    }
+
+    // Cycles through the three add-ons on top of a basic rental
+    static CarRental stack(int depth) {
+        CarRental rental = new BasicCarRental();
+        for (int i = 0; i < depth; i++) {
+            switch (i % 3) {
+                case 0:
+                    rental = new GPSDecorator(rental);
+                    break;
+                case 1:
+                    rental = new InsuranceDecorator(rental);
+                    break;
+                default:
+                    rental = new SunroofDecorator(rental);
+            }
+        }
+        return rental;
+    }
+
+    private static String measure(CarRental rental) {
+        long allocated = ThreadAllocations.allocatedBytes();
+        long start = System.nanoTime();
+        sink += quote(rental, QUOTES);
+        long nanos = System.nanoTime() - start;
+        allocated = ThreadAllocations.allocatedBytes() - allocated;
+        return String.format("%8.1f ns %7.0f B per quote", (double) nanos / QUOTES, (double) allocated / QUOTES);
+    }
+
+    private static long quote(CarRental rental, int quotes) {
+        long sink = 0;
+        for (int i = 0; i < quotes; i++) {
+            sink += (long) rental.getCost() + rental.getDescription().length();
+        }
+        return sink;
+    }
+}
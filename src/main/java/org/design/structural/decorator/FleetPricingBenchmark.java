@@ -0,0 +1,45 @@
+package org.design.structural.decorator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Prices tens of millions of random bookings by building a decorator stack per booking,
+ * and with FleetPricingEngine, checking that both give the same total.
+ * Usage: FleetPricingBenchmark [bookings]
+ */
+public class FleetPricingBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        int[] bookings = new int[count];
+        for (int i = 0; i < count; i++) {
+            bookings[i] = random.nextInt(RentalOption.ALL + 1);
+        }
+
+        FleetPricingEngine engine = new FleetPricingEngine();
+        double[] prices = new double[count];
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            double chainTotal = 0;
+            for (int options : bookings) {
+                chainTotal += RentalOption.decorate(new BasicCarRental(), options).getCost();
+            }
+            long chainNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            engine.priceBatch(bookings, prices);
+            double engineTotal = 0;
+            for (double price : prices) {
+                engineTotal += price;
+            }
+            long engineNanos = System.nanoTime() - start;
+
+            if (chainTotal != engineTotal) {
+                throw new IllegalStateException("Totals differ: " + chainTotal + " vs " + engineTotal);
+            }
+            System.out.printf("Decorator per booking %5.1f ns, engine %5.2f ns per booking, total $%,.0f%n",
+                    (double) chainNanos / count, (double) engineNanos / count, engineTotal);
+        }
+    }
+}
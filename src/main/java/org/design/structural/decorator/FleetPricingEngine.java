@@ -0,0 +1,148 @@
+package org.design.structural.decorator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prices bookings given as RentalOption masks without building a decorator stack per booking.
+ * The price and description of every option set are computed once, from the real decorator
+ * stack for that set, so the engine always agrees with the decorator classes.
+ * Prices are recomputed when the engine's RateBoard publishes a new table, and a batch is priced
+ * with one table throughout. Batches are split into chunks and priced in parallel on a fork-join pool.
+ */
+public class FleetPricingEngine {
+
+    private static final int BOOKINGS_PER_TASK = 64 * 1024;
+
+    private final ForkJoinPool pool;
+    // Null for the fixed RateTable.DEFAULT prices
+    private final RateBoard rates;
+    // Indexed by option mask
+    private final CarRental[] stacks = new CarRental[RentalOption.ALL + 1];
+    private final String[] descriptions = new String[RentalOption.ALL + 1];
+    private volatile Prices prices;
+
+    public FleetPricingEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public FleetPricingEngine(ForkJoinPool pool) {
+        this(null, pool);
+    }
+
+    // Prices with the current rates of the board
+    public FleetPricingEngine(RateBoard rates) {
+        this(rates, ForkJoinPool.commonPool());
+    }
+
+    public FleetPricingEngine(RateBoard rates, ForkJoinPool pool) {
+        this.pool = pool;
+        this.rates = rates;
+        for (int options = 0; options <= RentalOption.ALL; options++) {
+            BasicCarRental basic = rates == null ? new BasicCarRental() : new BasicCarRental(rates);
+            stacks[options] = RentalOption.decorate(basic, options);
+            descriptions[options] = stacks[options].getDescription();
+        }
+        this.prices = new Prices(RateBoard.currentOf(rates), stacks);
+    }
+
+    public double price(int options) {
+        checkOptions(options);
+        return prices(RateBoard.currentOf(rates)).table[options];
+    }
+
+    public double price(int options, RateTable rates) {
+        checkOptions(options);
+        return prices(rates).table[options];
+    }
+
+    public String describe(int options) {
+        checkOptions(options);
+        return descriptions[options];
+    }
+
+    public double[] priceBatch(int[] bookings) {
+        double[] result = new double[bookings.length];
+        priceBatch(bookings, result);
+        return result;
+    }
+
+    /**
+     * Writes the price of bookings[i] to result[i], all with the rate table current at the start.
+     */
+    public void priceBatch(int[] bookings, double[] result) {
+        priceBatch(bookings, result, RateBoard.currentOf(rates));
+    }
+
+    public void priceBatch(int[] bookings, double[] result, RateTable rates) {
+        if (result.length < bookings.length) {
+            throw new IllegalArgumentException("Result array is shorter than the bookings");
+        }
+        pool.invoke(new PricingTask(bookings, result, prices(rates).table, 0, bookings.length));
+    }
+
+    // Memoized prices of the current table, another pinned table is priced without replacing them
+    private Prices prices(RateTable table) {
+        Prices memo = prices;
+        if (memo.rates == table) {
+            return memo;
+        }
+        Prices computed = new Prices(table, stacks);
+        if (table == RateBoard.currentOf(rates)) {
+            prices = computed;
+        }
+        return computed;
+    }
+
+    private static void checkOptions(int options) {
+        if ((options & ~RentalOption.ALL) != 0) {
+            throw new IllegalArgumentException("Invalid rental options: " + Integer.toBinaryString(options));
+        }
+    }
+
+    private static final class PricingTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] bookings;
+        private final double[] result;
+        private final double[] table;
+        private final int from;
+        private final int to;
+
+        PricingTask(int[] bookings, double[] result, double[] table, int from, int to) {
+            this.bookings = bookings;
+            this.result = result;
+            this.table = table;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BOOKINGS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PricingTask(bookings, result, table, from, mid),
+                        new PricingTask(bookings, result, table, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int options = bookings[i];
+                checkOptions(options);
+                result[i] = table[options];
+            }
+        }
+    }
+
+    private static final class Prices {
+        private final RateTable rates;
+        private final double[] table;
+
+        Prices(RateTable rates, CarRental[] stacks) {
+            this.rates = rates;
+            this.table = new double[stacks.length];
+            for (int options = 0; options < stacks.length; options++) {
+                table[options] = stacks[options].getCost(rates);
+            }
+        }
+    }
+}
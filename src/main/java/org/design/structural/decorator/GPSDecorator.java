@@ -12,7 +12,7 @@ public class GPSDecorator extends CarRentalDecorator{
     }
 
     @Override
-    public double getCost() {
-        return super.getCost() + 10.0;
+    public double getCost(RateTable rates) {
+        return super.getCost(rates) + rates.getRate(RentalOption.GPS);
     }
 }
@@ -11,7 +11,7 @@ public class InsuranceDecorator extends CarRentalDecorator {
     }
 
     @Override
-    public double getCost() {
-        return super.getCost() + 20.0;
+    public double getCost(RateTable rates) {
+        return super.getCost(rates) + rates.getRate(RentalOption.INSURANCE);
     }
 }
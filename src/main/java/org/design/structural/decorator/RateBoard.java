@@ -0,0 +1,53 @@
+package org.design.structural.decorator;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * The live rates of one fleet, owned by whoever sets its prices and passed to the rentals and
+ * engines that price with it. Reading the current table is a single volatile read, and publishing
+ * swaps in the next version with a compare-and-set, so readers never wait and never see half an update.
+ */
+public final class RateBoard {
+
+    private final AtomicReference<RateTable> current;
+
+    public RateBoard() {
+        this(RateTable.DEFAULT);
+    }
+
+    // The initial rates are published as version 1
+    public RateBoard(RateTable initial) {
+        this.current = new AtomicReference<>(initial.withVersion(1));
+    }
+
+    public RateTable current() {
+        return current.get();
+    }
+
+    /**
+     * Publishes the rates as the next version and returns the published table.
+     */
+    public RateTable publish(RateTable rates) {
+        return update(table -> rates);
+    }
+
+    /**
+     * Applies the change to the current table and publishes the result as the next version,
+     * retrying with the newer table if another update won the race.
+     */
+    public RateTable update(UnaryOperator<RateTable> change) {
+        while (true) {
+            RateTable table = current.get();
+            RateTable next = change.apply(table).withVersion(table.getVersion() + 1);
+            if (current.compareAndSet(table, next)) {
+                return next;
+            }
+        }
+    }
+
+    // Current table of the board, DEFAULT for a rental without one
+    static RateTable currentOf(RateBoard board) {
+        return board == null ? RateTable.DEFAULT : board.current();
+    }
+}
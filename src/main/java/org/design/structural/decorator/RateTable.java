@@ -0,0 +1,69 @@
+package org.design.structural.decorator;
+
+import java.util.Arrays;
+
+/**
+ * Immutable prices of the basic rental and of every RentalOption.
+ * A RateBoard publishes tables as numbered versions, a table that was never published has version 0.
+ * A quote that must stay consistent passes one table to CarRental.getCost(RateTable).
+ */
+public final class RateTable {
+
+    // The prices every rental had before rates could change, used by rentals without a RateBoard
+    public static final RateTable DEFAULT = new RateTable(0, 50.0, new double[]{10.0, 20.0, 15.0});
+
+    private final long version;
+    private final double baseRate;
+    // Indexed by RentalOption ordinal
+    private final double[] optionRates;
+
+    private RateTable(long version, double baseRate, double[] optionRates) {
+        if (optionRates.length != RentalOption.values().length) {
+            throw new IllegalArgumentException("Every rental option needs a rate");
+        }
+        this.version = version;
+        this.baseRate = baseRate;
+        this.optionRates = optionRates;
+    }
+
+    // Copy carrying the version a RateBoard publishes it as
+    RateTable withVersion(long version) {
+        return new RateTable(version, baseRate, optionRates);
+    }
+
+    // Returns an unpublished copy with another base rate
+    public RateTable withBaseRate(double baseRate) {
+        return new RateTable(0, checkRate(baseRate), optionRates);
+    }
+
+    public RateTable withRate(RentalOption option, double rate) {
+        double[] rates = Arrays.copyOf(optionRates, optionRates.length);
+        rates[option.ordinal()] = checkRate(rate);
+        return new RateTable(0, baseRate, rates);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public double getBaseRate() {
+        return baseRate;
+    }
+
+    public double getRate(RentalOption option) {
+        return optionRates[option.ordinal()];
+    }
+
+    private static double checkRate(double rate) {
+        if (!(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Invalid rate: " + rate);
+        }
+        return rate;
+    }
+
+    @Override
+    public String toString() {
+        return "RateTable{version=" + version + ", baseRate=" + baseRate
+                + ", optionRates=" + Arrays.toString(optionRates) + '}';
+    }
+}
@@ -0,0 +1,60 @@
+package org.design.structural.decorator;
+
+/**
+ * The add-ons a car rental can be decorated with. Each option owns one bit, so a set of options
+ * is an int mask, and decorators are always applied in declaration order.
+ */
+public enum RentalOption {
+    GPS {
+        @Override
+        public CarRental decorate(CarRental rental) {
+            return new GPSDecorator(rental);
+        }
+    },
+    INSURANCE {
+        @Override
+        public CarRental decorate(CarRental rental) {
+            return new InsuranceDecorator(rental);
+        }
+    },
+    SUNROOF {
+        @Override
+        public CarRental decorate(CarRental rental) {
+            return new SunroofDecorator(rental);
+        }
+    };
+
+    private static final RentalOption[] OPTIONS = values();
+
+    // Every option set fits in an int mask
+    public static final int ALL = (1 << OPTIONS.length) - 1;
+
+    public abstract CarRental decorate(CarRental rental);
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public static int mask(RentalOption... options) {
+        int mask = 0;
+        for (RentalOption option : options) {
+            mask |= option.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the decorator stack for the option set, innermost option first.
+     */
+    public static CarRental decorate(CarRental rental, int options) {
+        if ((options & ~ALL) != 0) {
+            throw new IllegalArgumentException("Invalid rental options: " + Integer.toBinaryString(options));
+        }
+        for (RentalOption option : OPTIONS) {
+            if ((options & option.mask()) != 0) {
+                rental = option.decorate(rental);
+            }
+        }
+        return rental;
+    }
+}
@@ -1,24 +1,50 @@
 package org.design.structural.flyWeight;
 
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class CounterStrike {
 
-    private static String[] playerType =
+    private static final String[] playerType =
             {"Terrorist", "CounterTerrorist"};
-    private static String[] weapons =
-            {"AK-47", "Maverick", "Gut Knife", "Desert Eagle"};
+    private static final WeaponCatalog weapons =
+            WeaponCatalog.of("AK-47", "Maverick", "Gut Knife", "Desert Eagle");
 
     public static void main(String[] args) {
         for (int i = 0; i < 10; i++) {
             Player player = PlayerFactory.getPlayer(getRandPlayerType());
-            player.assignWeapon(getRandWeapon());
-            player.mission();
+            player.mission(getRandWeapon().getName());
         }
+
+        // Same missions rendered as pre-encoded bytes into one reusable buffer
+        MissionBuffer out = new MissionBuffer(System.out, 8192);
+        for (int i = 0; i < 10; i++) {
+            PlayerFactory.getPlayer(getRandPlayerType()).mission(getRandWeapon(), out);
+        }
+        out.flush();
+
+        // A million players share the same two flyweights, only team and weapon ids are stored
+        PlayerPool lobby = new PlayerPool(weapons, 1_000_000);
+        Random r = new Random();
+        for (int i = 0; i < 1_000_000; i++) {
+            lobby.add(r.nextInt(playerType.length), r.nextInt(weapons.size()));
+        }
+        System.out.println("Lobby of " + lobby.size() + " players, first player:");
+        lobby.mission(0, out);
+        out.flush();
+
+        // Ten million rounds of ten players across all cores, same seed gives the same result
+        RoundSimulator simulator = new RoundSimulator(10, weapons.size(), ForkJoinPool.commonPool());
+        RoundSimulator.Result result = simulator.simulate(10_000_000, 42);
+        System.out.printf("Simulated %,d rounds, terrorists won %,d: %,.0f rounds/s, %.4f bytes allocated/round%n",
+                result.getRounds(), result.getTerroristWins(),
+                result.getRoundsPerSecond(), result.getAllocatedBytesPerRound());
     }
 
     public static String getRandPlayerType() {
-        Random r = new Random();
+        // ThreadLocalRandom avoids creating and seeding a Random on every call
+        ThreadLocalRandom r = ThreadLocalRandom.current();
         // Will return an integer between [0,2)
         int randInt = r.nextInt(playerType.length);
 
@@ -26,14 +52,14 @@ public class CounterStrike {
         return playerType[randInt];
     }
 
-    public static String getRandWeapon()
+    public static Weapon getRandWeapon()
     {
-        Random r = new Random();
+        ThreadLocalRandom r = ThreadLocalRandom.current();
 
         // Will return an integer between [0,5)
-        int randInt = r.nextInt(weapons.length);
+        int randInt = r.nextInt(weapons.size());
 
-        // Return the weapon stored at index 'randInt'
-        return weapons[randInt];
+        // Return the weapon with id 'randInt'
+        return weapons.get(randInt);
     }
 }
@@ -1,24 +1,29 @@
 package org.design.structural.flyWeight;
 
+import java.nio.charset.StandardCharsets;
+
 class CounterTerrorist implements Player
 {
     // Intrinsic Attribute
     private final String TASK;
- 
-    // Extrinsic Attribute
-    private String weapon;
+
+    // Pre-encoded text around the weapon name
+    private final byte[] prefix;
+    private final byte[] suffix;
  
     public CounterTerrorist()
     {
         TASK = "DIFFUSE BOMB";
+        prefix = "Counter Terrorist with weapon ".getBytes(StandardCharsets.UTF_8);
+        suffix = ("|" + " Task is " + TASK + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
     }
-    public void assignWeapon(String weapon)
-    {
-        this.weapon = weapon;
-    }
-    public void mission()
+    public void mission(String weapon)
     {
         System.out.println("Counter Terrorist with weapon "
                            + weapon + "|" + " Task is " + TASK);
     }
-}
\ No newline at end of file
+    public void mission(Weapon weapon, MissionBuffer out)
+    {
+        out.put(prefix).put(weapon.getEncodedName()).put(suffix);
+    }
+}
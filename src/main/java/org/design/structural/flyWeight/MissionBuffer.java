@@ -0,0 +1,55 @@
+package org.design.structural.flyWeight;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Reusable byte buffer that players render their missions into.
+ * It only writes to the sink when it is full or flushed, so the sink's lock is
+ * taken once per buffer instead of once per mission. Not thread-safe, use one per thread.
+ */
+public class MissionBuffer {
+
+    private final OutputStream sink;
+    private final byte[] buffer;
+    private int position;
+
+    public MissionBuffer(OutputStream sink, int capacity) {
+        this.sink = sink;
+        this.buffer = new byte[capacity];
+    }
+
+    public MissionBuffer put(byte[] bytes) {
+        if (bytes.length > buffer.length - position) {
+            flush();
+            if (bytes.length > buffer.length) {
+                write(bytes, bytes.length);
+                return this;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        return this;
+    }
+
+    public void flush() {
+        if (position > 0) {
+            write(buffer, position);
+            position = 0;
+        }
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(byte[] bytes, int length) {
+        try {
+            sink.write(bytes, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
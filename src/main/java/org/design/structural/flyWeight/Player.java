@@ -1,6 +1,9 @@
 package org.design.structural.flyWeight;
 
 public interface Player {
-    public void assignWeapon(String weapon);
-    public void mission();
+    // The weapon is extrinsic state, it is passed in instead of stored on the shared object
+    public void mission(String weapon);
+
+    // Allocation-free variant, writes the pre-encoded mission line into the buffer
+    public void mission(Weapon weapon, MissionBuffer out);
 }
@@ -1,39 +1,53 @@
 package org.design.structural.flyWeight;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PlayerFactory {
 
-    private static Map<String, Player> hm = new HashMap<>();
+    private static final ConcurrentMap<String, Player> hm = new ConcurrentHashMap<>();
+
+    // Striped counters, so concurrent lookups do not contend on one cache line
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
     public static Player getPlayer(String type)
     {
-        Player p = null;
-
         /* If an object for TS or CT has already been
-           created simply return its reference */
-        if (hm.containsKey(type))
-            p = hm.get(type);
-        else
+           created simply return its reference. A plain get on
+           a ConcurrentHashMap takes no lock */
+        Player p = hm.get(type);
+        if (p != null) {
+            hits.increment();
+            return p;
+        }
+
+        /* Only the first caller for a type creates the object,
+           everyone racing with it gets the same instance */
+        misses.increment();
+        return hm.computeIfAbsent(type, PlayerFactory::createPlayer);
+    }
+
+    private static Player createPlayer(String type)
+    {
+        /* create an object of TS/CT  */
+        switch (type)
         {
-            /* create an object of TS/CT  */
-            switch(type)
-            {
-                case "Terrorist":
-                    System.out.println("Terrorist Created");
-                    p = new Terrorist();
-                    break;
-                case "CounterTerrorist":
-                    System.out.println("Counter Terrorist Created");
-                    p = new CounterTerrorist();
-                    break;
-                default :
-                    System.out.println("Unreachable code!");
-            }
-
-            // Once created insert it into the HashMap
-            hm.put(type, p);
+            case "Terrorist":
+                return new Terrorist();
+            case "CounterTerrorist":
+                return new CounterTerrorist();
+            default:
+                throw new IllegalArgumentException("Invalid player type: " + type);
         }
-        return p;
+    }
+
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    public static long getMissCount() {
+        return misses.sum();
     }
 }
@@ -0,0 +1,72 @@
+package org.design.structural.flyWeight;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures PlayerFactory lookup throughput from 1 thread up to the number of cores.
+ */
+public class PlayerFactoryBenchmark {
+
+    private static final String[] TYPES = {"Terrorist", "CounterTerrorist"};
+    private static final int LOOKUPS_PER_THREAD = 20_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // Warm up the registry and let the JIT compile the lookup path
+        run(1);
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            report(threads, run(threads));
+        }
+        if (Integer.bitCount(cores) != 1) {
+            report(cores, run(cores));
+        }
+
+        System.out.println("Hits: " + PlayerFactory.getHitCount()
+                + " Misses: " + PlayerFactory.getMissCount());
+    }
+
+    private static long run(int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongAdder sink = new LongAdder();
+
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long local = 0;
+                for (int i = 0; i < LOOKUPS_PER_THREAD; i++) {
+                    local += System.identityHashCode(PlayerFactory.getPlayer(TYPES[(i + offset) & 1]));
+                }
+                sink.add(local);
+                done.countDown();
+            });
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        if (sink.sum() == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    private static void report(int threads, long elapsedNanos) {
+        long lookups = (long) threads * LOOKUPS_PER_THREAD;
+        double perSecond = lookups * 1_000_000_000.0 / elapsedNanos;
+        System.out.printf("%2d threads: %,.0f lookups/s (%.2f ns/lookup/thread)%n",
+                threads, perSecond, (double) elapsedNanos * threads / lookups);
+    }
+}
@@ -0,0 +1,101 @@
+package org.design.structural.flyWeight;
+
+import java.util.Arrays;
+
+/**
+ * Holds the extrinsic state of many players in primitive arrays (struct-of-arrays).
+ * A player is just an index: its team and weapon are one byte each, and the
+ * shared Terrorist/CounterTerrorist flyweights are looked up only when needed,
+ * so a million players cost about two megabytes instead of a million objects.
+ */
+public class PlayerPool {
+
+    public static final int TERRORIST = 0;
+    public static final int COUNTER_TERRORIST = 1;
+
+    private static final String[] TEAMS = {"Terrorist", "CounterTerrorist"};
+
+    private final WeaponCatalog weapons;
+    private byte[] teams;
+    private byte[] weaponIds;
+    private int size;
+
+    public PlayerPool(WeaponCatalog weapons, int initialCapacity) {
+        if (weapons.size() > Byte.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("At most 128 weapons are supported");
+        }
+        this.weapons = weapons;
+        this.teams = new byte[Math.max(initialCapacity, 16)];
+        this.weaponIds = new byte[teams.length];
+    }
+
+    /**
+     * Adds a player and returns its index in the pool.
+     */
+    public int add(int team, int weapon) {
+        checkTeam(team);
+        checkWeapon(weapon);
+        if (size == teams.length) {
+            int capacity = teams.length + (teams.length >> 1);
+            teams = Arrays.copyOf(teams, capacity);
+            weaponIds = Arrays.copyOf(weaponIds, capacity);
+        }
+        teams[size] = (byte) team;
+        weaponIds[size] = (byte) weapon;
+        return size++;
+    }
+
+    public void assignWeapon(int player, int weapon) {
+        checkIndex(player);
+        checkWeapon(weapon);
+        weaponIds[player] = (byte) weapon;
+    }
+
+    public int getTeam(int player) {
+        checkIndex(player);
+        return teams[player];
+    }
+
+    public int getWeapon(int player) {
+        checkIndex(player);
+        return weaponIds[player];
+    }
+
+    public Weapon getWeaponOf(int player) {
+        return weapons.get(getWeapon(player));
+    }
+
+    public Player getPlayer(int player) {
+        return PlayerFactory.getPlayer(TEAMS[getTeam(player)]);
+    }
+
+    public void mission(int player) {
+        getPlayer(player).mission(getWeaponOf(player).getName());
+    }
+
+    public void mission(int player, MissionBuffer out) {
+        getPlayer(player).mission(getWeaponOf(player), out);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int player) {
+        if (player < 0 || player >= size) {
+            throw new IndexOutOfBoundsException("Player " + player + " out of bounds for size " + size);
+        }
+    }
+
+    private void checkTeam(int team) {
+        if (team != TERRORIST && team != COUNTER_TERRORIST) {
+            throw new IllegalArgumentException("Invalid team: " + team);
+        }
+    }
+
+    private void checkWeapon(int weapon) {
+        if (weapon < 0 || weapon >= weapons.size()) {
+            throw new IllegalArgumentException("Invalid weapon: " + weapon);
+        }
+    }
+}
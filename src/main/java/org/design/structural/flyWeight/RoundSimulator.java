@@ -0,0 +1,134 @@
+package org.design.structural.flyWeight;
+
+import org.design.ThreadAllocations;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulates Counter Strike rounds in parallel on a fork-join pool.
+ * Every task owns a SplittableRandom stream split off its parent, and the task
+ * tree only depends on the round count, so a given seed always gives the same result
+ * no matter how many cores run it.
+ */
+public class RoundSimulator {
+
+    private static final int ROUNDS_PER_TASK = 64 * 1024;
+
+    private final int playersPerRound;
+    private final int weaponCount;
+    private final ForkJoinPool pool;
+
+    public RoundSimulator(int playersPerRound, int weaponCount, ForkJoinPool pool) {
+        if (playersPerRound <= 0 || weaponCount <= 0) {
+            throw new IllegalArgumentException("Players per round and weapon count must be positive");
+        }
+        this.playersPerRound = playersPerRound;
+        this.weaponCount = weaponCount;
+        this.pool = pool;
+    }
+
+    public Result simulate(long rounds, long seed) {
+        long start = System.nanoTime();
+        Result result = pool.invoke(new SimulationTask(0, rounds, new SplittableRandom(seed)));
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private final class SimulationTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        SimulationTask(long from, long to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > ROUNDS_PER_TASK) {
+                long mid = (from + to) >>> 1;
+                SimulationTask right = new SimulationTask(mid, to, random.split());
+                SimulationTask left = new SimulationTask(from, mid, random);
+                right.fork();
+                Result result = left.compute();
+                result.add(right.join());
+                return result;
+            }
+            return simulateRounds();
+        }
+
+        private Result simulateRounds() {
+            long allocatedBefore = ThreadAllocations.allocatedBytes();
+            Result result = new Result(weaponCount);
+            long[] missions = result.missions;
+            for (long round = from; round < to; round++) {
+                int terrorists = 0;
+                for (int p = 0; p < playersPerRound; p++) {
+                    int team = random.nextInt(2);
+                    int weapon = random.nextInt(weaponCount);
+                    missions[team * weaponCount + weapon]++;
+                    terrorists += 1 - team;
+                }
+                // The bigger team wins, ties go to the counter terrorists
+                if (terrorists * 2 > playersPerRound) {
+                    result.terroristWins++;
+                }
+            }
+            result.rounds = to - from;
+            result.allocatedBytes = ThreadAllocations.allocatedBytes() - allocatedBefore;
+            return result;
+        }
+    }
+
+    public static final class Result {
+        // Indexed by team * weaponCount + weapon
+        private final long[] missions;
+        private long rounds;
+        private long terroristWins;
+        private long allocatedBytes;
+        private long elapsedNanos;
+
+        Result(int weaponCount) {
+            this.missions = new long[2 * weaponCount];
+        }
+
+        void add(Result other) {
+            for (int i = 0; i < missions.length; i++) {
+                missions[i] += other.missions[i];
+            }
+            rounds += other.rounds;
+            terroristWins += other.terroristWins;
+            allocatedBytes += other.allocatedBytes;
+        }
+
+        public long getMissions(int team, int weapon) {
+            return missions[team * (missions.length / 2) + weapon];
+        }
+
+        public long getRounds() {
+            return rounds;
+        }
+
+        public long getTerroristWins() {
+            return terroristWins;
+        }
+
+        public double getRoundsPerSecond() {
+            return rounds * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        /**
+         * Bytes allocated inside the simulation loops divided by the rounds played,
+         * zero when the JVM cannot report thread allocations.
+         */
+        public double getAllocatedBytesPerRound() {
+            return rounds == 0 ? 0 : (double) allocatedBytes / rounds;
+        }
+    }
+}
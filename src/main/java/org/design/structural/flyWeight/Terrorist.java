@@ -1,25 +1,29 @@
 package org.design.structural.flyWeight;
 
+import java.nio.charset.StandardCharsets;
+
 public class Terrorist implements  Player{
     // Intrinsic Attribute
     private final String TASK;
 
-    // Extrinsic Attribute
-    private String weapon;
+    // Pre-encoded text around the weapon name
+    private final byte[] prefix;
+    private final byte[] suffix;
 
     public Terrorist()
     {
         TASK = "PLANT A BOMB";
+        prefix = "Terrorist with weapon ".getBytes(StandardCharsets.UTF_8);
+        suffix = ("|" + " Task is " + TASK + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
     }
-    public void assignWeapon(String weapon)
-    {
-        // Assign a weapon
-        this.weapon = weapon;
-    }
-    public void mission()
+    public void mission(String weapon)
     {
         //Work on the Mission
         System.out.println("Terrorist with weapon "
                 + weapon + "|" + " Task is " + TASK);
     }
+    public void mission(Weapon weapon, MissionBuffer out)
+    {
+        out.put(prefix).put(weapon.getEncodedName()).put(suffix);
+    }
 }
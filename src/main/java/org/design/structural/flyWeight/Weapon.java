@@ -0,0 +1,37 @@
+package org.design.structural.flyWeight;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Weapon flyweight, created once per name by WeaponCatalog and referenced by its id.
+ */
+public final class Weapon {
+    private final int id;
+    private final String name;
+
+    // Encoded once, so rendering a mission copies bytes instead of building Strings
+    private final byte[] encodedName;
+
+    Weapon(int id, String name) {
+        this.id = id;
+        this.name = name;
+        this.encodedName = name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    byte[] getEncodedName() {
+        return encodedName;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
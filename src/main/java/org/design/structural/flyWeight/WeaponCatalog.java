@@ -0,0 +1,45 @@
+package org.design.structural.flyWeight;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable catalog of Weapon flyweights with dense int ids, 0 to size() - 1.
+ */
+public final class WeaponCatalog {
+
+    private final Weapon[] weapons;
+    private final Map<String, Weapon> byName;
+
+    private WeaponCatalog(String[] names) {
+        this.weapons = new Weapon[names.length];
+        this.byName = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            Weapon weapon = new Weapon(i, names[i]);
+            if (byName.putIfAbsent(names[i], weapon) != null) {
+                throw new IllegalArgumentException("Duplicate weapon: " + names[i]);
+            }
+            weapons[i] = weapon;
+        }
+    }
+
+    public static WeaponCatalog of(String... names) {
+        return new WeaponCatalog(names);
+    }
+
+    public Weapon get(int id) {
+        return weapons[id];
+    }
+
+    public Weapon get(String name) {
+        Weapon weapon = byName.get(name);
+        if (weapon == null) {
+            throw new IllegalArgumentException("Invalid weapon: " + name);
+        }
+        return weapon;
+    }
+
+    public int size() {
+        return weapons.length;
+    }
+}
@@ -0,0 +1,79 @@
+package org.design.behavioral.strategy;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+
+public class IdempotencyFilterTest extends TestCase {
+
+    public void testDuplicateIsRejected() {
+        IdempotencyFilter filter = new IdempotencyFilter(1_000, 1, TimeUnit.HOURS);
+
+        assertTrue(filter.firstSeen(42));
+        assertFalse(filter.firstSeen(42));
+        assertFalse(filter.tryAcquire(42));
+        assertTrue(filter.firstSeen(43));
+    }
+
+    public void testExpiredIdIsAcceptedAgain() throws InterruptedException {
+        IdempotencyFilter filter = new IdempotencyFilter(1_000, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(filter.firstSeen(42));
+        Thread.sleep(50);
+        assertTrue(filter.firstSeen(42));
+        assertFalse(filter.firstSeen(42));
+    }
+
+    public void testInFlightIdRejectsConcurrentRetryUntilReleased() {
+        IdempotencyFilter filter = new IdempotencyFilter(1_000, 1, TimeUnit.HOURS);
+
+        assertTrue(filter.tryAcquire(42));
+        assertFalse(filter.tryAcquire(42));
+        filter.release(42);
+        assertTrue(filter.tryAcquire(42));
+        filter.commit(42);
+        assertFalse(filter.tryAcquire(42));
+        assertFalse(filter.firstSeen(42));
+    }
+
+    public void testReleasingAnUnknownIdChangesNothing() {
+        IdempotencyFilter filter = new IdempotencyFilter(1_000, 1, TimeUnit.HOURS);
+
+        filter.release(7);
+        filter.commit(8);
+        assertEquals(0, filter.size());
+        assertTrue(filter.tryAcquire(7));
+        assertTrue(filter.tryAcquire(8));
+    }
+
+    // Live ids probe past ids that are released later, purging those must not cut the probe chains
+    public void testPurgeKeepsLiveIds() {
+        IdempotencyFilter filter = new IdempotencyFilter(10_000, 1, TimeUnit.HOURS);
+        for (long block = 0; block < 1_000_000; block += 200) {
+            for (long id = block + 1; id < block + 200; id++) {
+                assertTrue(filter.tryAcquire(id));
+            }
+            assertTrue(filter.firstSeen(block));
+            for (long id = block + 1; id < block + 200; id++) {
+                filter.release(id);
+            }
+        }
+        for (long id = 0; id < 1_000_000; id += 200) {
+            assertFalse("Lost live id " + id, filter.firstSeen(id));
+        }
+        assertTrue(filter.size() < 20_000);
+    }
+
+    // Twenty times the sized capacity only fits if expired ids are reclaimed
+    public void testExpiredIdsAreReclaimed() throws InterruptedException {
+        IdempotencyFilter filter = new IdempotencyFilter(1_000, 10, TimeUnit.MILLISECONDS);
+        long id = 0;
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 1_000; i++) {
+                assertTrue(filter.firstSeen(id++));
+            }
+            Thread.sleep(20);
+        }
+        assertTrue(filter.size() < 4_000);
+    }
+}
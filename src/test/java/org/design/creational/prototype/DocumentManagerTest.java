@@ -0,0 +1,125 @@
+package org.design.creational.prototype;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class DocumentManagerTest extends TestCase {
+
+    public void testPoolIsRefilledWithClones() throws InterruptedException {
+        DocumentManager manager = new DocumentManager();
+        Version template = new Version(1);
+        manager.addTemplate("doc", template);
+        manager.enablePool("doc", 8);
+        manager.awaitRefill("doc");
+        assertEquals(8, manager.getPooledCount("doc"));
+
+        for (int i = 0; i < 6; i++) {
+            Document document = manager.createDocument("doc");
+            assertNotSame(template, document);
+            assertEquals(1, ((Version) document).number);
+        }
+        manager.awaitRefill("doc");
+        assertEquals(8, manager.getPooledCount("doc"));
+    }
+
+    public void testRejectedRefillFallsBackToCloning() throws InterruptedException {
+        DocumentManager manager = new DocumentManager(task -> {
+            throw new RejectedExecutionException("Shut down");
+        });
+        manager.addTemplate("doc", new Version(1));
+        manager.enablePool("doc", 4);
+        manager.awaitRefill("doc");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, ((Version) manager.createDocument("doc")).number);
+        }
+        assertEquals(0, manager.getPooledCount("doc"));
+    }
+
+    public void testAddTemplateOverPooledKeepsPool() throws InterruptedException {
+        DocumentManager manager = new DocumentManager();
+        manager.addTemplate("doc", new Version(1));
+        manager.enablePool("doc", 4);
+        manager.awaitRefill("doc");
+
+        manager.addTemplate("doc", new Version(2));
+        manager.awaitRefill("doc");
+        assertEquals(4, manager.getPooledCount("doc"));
+        assertEquals(2, ((Version) manager.createDocument("doc")).number);
+    }
+
+    public void testUnknownTemplateIsRejected() {
+        DocumentManager manager = new DocumentManager();
+        try {
+            manager.createDocument("missing");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            manager.replaceTemplate("missing", new Version(1));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    // Once replaceTemplate returns no caller gets the old version, and no thread ever sees an older one again
+    public void testReplaceRacesWithCreate() throws Exception {
+        DocumentManager manager = new DocumentManager();
+        manager.addTemplate("doc", new Version(0));
+        manager.enablePool("doc", 16);
+
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService creators = Executors.newFixedThreadPool(3);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            results.add(creators.submit(() -> {
+                int last = 0;
+                int created = 0;
+                while (!done.get()) {
+                    int number = ((Version) manager.createDocument("doc")).number;
+                    assertTrue("Went back from " + last + " to " + number, number >= last);
+                    last = number;
+                    created++;
+                }
+                return created;
+            }));
+        }
+        try {
+            for (int number = 1; number <= 500; number++) {
+                manager.replaceTemplate("doc", new Version(number));
+                assertEquals(number, ((Version) manager.createDocument("doc")).number);
+            }
+        } finally {
+            done.set(true);
+            creators.shutdown();
+        }
+        for (Future<Integer> result : results) {
+            assertTrue(result.get() > 0);
+        }
+    }
+
+    private static final class Version implements Document {
+        private final int number;
+
+        Version(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public Document clone() {
+            return new Version(number);
+        }
+
+        @Override
+        public void printContent() {
+            System.out.println("Version " + number);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.design.structural.adpater;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.design.structural.adpater.SQLDatabaseTest.names;
+
+public class NoSQLDatabaseTest extends TestCase {
+
+    private NoSQLDatabase database;
+
+    @Override
+    protected void setUp() {
+        database = new NoSQLDatabase();
+        database.insertDocument(user(null, "alice", 30));
+        database.insertDocument(user(null, "bob", 25));
+        database.insertDocument(user(null, "carol", 30.0));
+    }
+
+    public void testGeneratedIdsDoNotReplaceExplicitIds() {
+        NoSQLDatabase database = new NoSQLDatabase();
+        database.insertDocument(user(1, "alice", 30));
+        database.insertDocument(user(null, "bob", 25));
+
+        assertEquals(2, database.size());
+        assertEquals(List.of("alice"), names(database.findDocument("{_id: 1}")));
+        assertEquals(List.of("bob"), names(database.findDocument("{_id: 2}")));
+    }
+
+    public void testEqualityMatchesWholeNumberDoubles() {
+        assertEquals(List.of("alice", "carol"), names(database.findDocument("{age: 30}")));
+        assertEquals(List.of("alice", "carol"), names(database.findDocument("{age: 30.0}")));
+
+        database.createIndex("age");
+        assertEquals(List.of("alice", "carol"), names(database.findDocument("{age: 30}")));
+        assertEquals(List.of("alice", "carol"), names(database.findDocument("{age: 30.0}")));
+    }
+
+    public void testQueryOnSeveralFields() {
+        database.createIndex("name");
+
+        assertEquals(List.of("carol"), names(database.findDocument("{name: 'carol', age: 30}")));
+        assertEquals(List.of(), names(database.findDocument("{name: 'carol', age: 25}")));
+        assertEquals(List.of("alice", "bob", "carol"), names(database.findDocument("{}")));
+    }
+
+    public void testRemoveUpdatesTheIndex() {
+        database.createIndex("age");
+        database.removeDocument("{age: 30}");
+
+        assertEquals(1, database.size());
+        assertEquals(List.of(), names(database.findDocument("{age: 30}")));
+        assertEquals(List.of("bob"), names(database.findDocument("{age: 25}")));
+    }
+
+    public void testSqlAndNoSqlAgreeOnEquality() {
+        SQLDatabase sql = new SQLDatabase();
+        NoSQLDatabase noSql = new NoSQLDatabase();
+        for (Object age : new Object[]{30, 30.0, 30.5, 31L}) {
+            sql.insertSQL(SQLDatabaseTest.user(null, "age " + age, age));
+            noSql.insertDocument(user(null, "age " + age, age));
+        }
+
+        List<String> expected = List.of("age 30", "age 30.0");
+        assertEquals(expected, names(sql.querySQL("SELECT * FROM users WHERE age = 30")));
+        assertEquals(expected, names(noSql.findDocument("{age: 30}")));
+    }
+
+    private static Map<String, Object> user(Object id, String name, Object age) {
+        Map<String, Object> user = new HashMap<>();
+        if (id != null) {
+            user.put("_id", id);
+        }
+        user.put("name", name);
+        user.put("age", age);
+        return user;
+    }
+}
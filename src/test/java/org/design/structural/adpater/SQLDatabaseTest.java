@@ -0,0 +1,100 @@
+package org.design.structural.adpater;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SQLDatabaseTest extends TestCase {
+
+    private SQLDatabase database;
+
+    @Override
+    protected void setUp() {
+        database = new SQLDatabase();
+        database.insertSQL(user(null, "alice", 30));
+        database.insertSQL(user(null, "bob", 25));
+        database.insertSQL(user(null, "carol", 41));
+    }
+
+    public void testGeneratedIdsDoNotReplaceExplicitIds() {
+        SQLDatabase database = new SQLDatabase();
+        database.insertSQL(user(1, "alice", 30));
+        database.insertSQL(user(null, "bob", 25));
+
+        assertEquals(2, database.size());
+        assertEquals(List.of("alice"), names(database.querySQL("SELECT * FROM users WHERE id = 1")));
+        assertEquals(List.of("bob"), names(database.querySQL("SELECT * FROM users WHERE id = 2")));
+    }
+
+    public void testExplicitIdReplacesTheRowWithThatId() {
+        database.insertSQL(user(2, "bobby", 26));
+
+        assertEquals(3, database.size());
+        assertEquals(List.of("bobby"), names(database.querySQL("SELECT * FROM users WHERE id = 2")));
+    }
+
+    public void testEqualityMatchesWholeNumberDoubles() {
+        database.insertSQL(user(null, "dave", 30.0));
+
+        assertEquals(List.of("alice", "dave"), names(database.querySQL("SELECT * FROM users WHERE age = 30")));
+        database.createIndex("age");
+        assertEquals(List.of("alice", "dave"), names(database.querySQL("SELECT * FROM users WHERE age = 30")));
+    }
+
+    public void testRangeQueriesWithAndWithoutIndex() {
+        String[] queries = {
+                "SELECT * FROM users WHERE age >= 30",
+                "SELECT * FROM users WHERE age < 30",
+                "SELECT * FROM users WHERE age BETWEEN 25 AND 30"
+        };
+        List<List<String>> scanned = new ArrayList<>();
+        for (String query : queries) {
+            scanned.add(names(database.querySQL(query)));
+        }
+        assertEquals(List.of(List.of("alice", "carol"), List.of("bob"), List.of("alice", "bob")), scanned);
+
+        database.createIndex("age");
+        for (int i = 0; i < queries.length; i++) {
+            assertEquals(queries[i], scanned.get(i), names(database.querySQL(queries[i])));
+        }
+    }
+
+    public void testDeleteUpdatesTheIndex() {
+        database.createIndex("age");
+        database.deleteSQL("DELETE FROM users WHERE age > 28");
+
+        assertEquals(1, database.size());
+        assertEquals(List.of("bob"), names(database.querySQL("SELECT * FROM users WHERE age <= 100")));
+    }
+
+    public void testRejectsUnknownTable() {
+        try {
+            database.querySQL("SELECT * FROM orders");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    static Map<String, Object> user(Object id, String name, Object age) {
+        Map<String, Object> user = new HashMap<>();
+        if (id != null) {
+            user.put("id", id);
+        }
+        user.put("name", name);
+        user.put("age", age);
+        return user;
+    }
+
+    // Names of the returned rows, sorted so the order of the hash index does not matter
+    static List<String> names(Object result) {
+        List<String> names = new ArrayList<>();
+        for (Object row : (List<?>) result) {
+            names.add((String) ((Map<?, ?>) row).get("name"));
+        }
+        names.sort(null);
+        return names;
+    }
+}
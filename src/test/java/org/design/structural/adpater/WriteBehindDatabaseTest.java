@@ -0,0 +1,143 @@
+package org.design.structural.adpater;
+
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.design.structural.adpater.SQLDatabaseTest.user;
+
+public class WriteBehindDatabaseTest extends TestCase {
+
+    private Path logFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        logFile = Files.createTempFile("write-behind", ".log");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(logFile);
+    }
+
+    public void testFlushAppliesEverySave() throws Exception {
+        SQLDatabase table = new SQLDatabase();
+        try (WriteBehindDatabase database = new WriteBehindDatabase.Builder(new SQLDatabaseAdapter(table), logFile)
+                .maxBatchSize(7)
+                .build()) {
+            for (int id = 1; id <= 100; id++) {
+                database.save(user(id, "user " + id, 30));
+            }
+            database.flush();
+            assertEquals(100, table.size());
+        }
+    }
+
+    // The first instance logged a batch but never applied it and was never closed, as if it had crashed
+    public void testReplaysLogLeftByUnclosedInstance() throws Exception {
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch crashed = new CountDownLatch(1);
+        Database stuck = new SQLDatabaseAdapter(new SQLDatabase()) {
+            @Override
+            public void saveAll(List<?> data) {
+                applying.countDown();
+                try {
+                    crashed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Crashed");
+            }
+        };
+        WriteBehindDatabase unclosed = new WriteBehindDatabase.Builder(stuck, logFile)
+                .maxRetries(0)
+                .build();
+        for (int id = 1; id <= 10; id++) {
+            unclosed.save(user(id, "user " + id, 30));
+        }
+        unclosed.flushAsync();
+        assertTrue(applying.await(10, TimeUnit.SECONDS));
+
+        SQLDatabase table = new SQLDatabase();
+        try (WriteBehindDatabase reopened = new WriteBehindDatabase.Builder(new SQLDatabaseAdapter(table), logFile)
+                .build()) {
+            assertEquals(10, reopened.getReplayedCount());
+            assertEquals(10, table.size());
+        } finally {
+            crashed.countDown();
+        }
+    }
+
+    public void testNothingToReplayAfterClose() throws Exception {
+        try (WriteBehindDatabase database = new WriteBehindDatabase.Builder(
+                new SQLDatabaseAdapter(new SQLDatabase()), logFile).build()) {
+            database.save(user(1, "alice", 30));
+        }
+        SQLDatabase table = new SQLDatabase();
+        try (WriteBehindDatabase reopened = new WriteBehindDatabase.Builder(new SQLDatabaseAdapter(table), logFile)
+                .build()) {
+            assertEquals(0, reopened.getReplayedCount());
+            assertEquals(0, table.size());
+        }
+    }
+
+    public void testRetriesFailedBatch() throws Exception {
+        AtomicInteger failures = new AtomicInteger(2);
+        SQLDatabase table = new SQLDatabase();
+        Database flaky = new SQLDatabaseAdapter(table) {
+            @Override
+            public void saveAll(List<?> data) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Unavailable");
+                }
+                super.saveAll(data);
+            }
+        };
+        try (WriteBehindDatabase database = new WriteBehindDatabase.Builder(flaky, logFile).maxRetries(3).build()) {
+            database.save(user(1, "alice", 30));
+            database.flush();
+            assertEquals(1, table.size());
+        }
+    }
+
+    // Saves behind a batch that keeps failing stay in the log and reach the next instance
+    public void testFailedDelegateKeepsSavesForReplay() throws Exception {
+        Database broken = new SQLDatabaseAdapter(new SQLDatabase()) {
+            @Override
+            public void saveAll(List<?> data) {
+                throw new IllegalStateException("Unavailable");
+            }
+        };
+        WriteBehindDatabase database = new WriteBehindDatabase.Builder(broken, logFile)
+                .maxRetries(1)
+                .maxBatchSize(2)
+                .build();
+        for (int id = 1; id <= 5; id++) {
+            database.save(user(id, "user " + id, 30));
+        }
+        try {
+            database.flush();
+            fail("Expected the flush to fail");
+        } catch (CompletionException expected) {
+        }
+        try {
+            database.save(user(6, "user 6", 30));
+            fail("Expected the save to be rejected");
+        } catch (IllegalStateException expected) {
+        }
+        database.close();
+
+        SQLDatabase table = new SQLDatabase();
+        try (WriteBehindDatabase reopened = new WriteBehindDatabase.Builder(new SQLDatabaseAdapter(table), logFile)
+                .build()) {
+            assertEquals(5, reopened.getReplayedCount());
+            assertEquals(5, table.size());
+        }
+    }
+}